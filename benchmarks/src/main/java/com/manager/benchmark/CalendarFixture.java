@@ -0,0 +1,157 @@
+package com.manager.benchmark;
+
+import com.manager.ClinicScheduler;
+import com.manager.Date;
+import com.manager.Doctor;
+import com.manager.Location;
+import com.manager.Profile;
+import com.manager.Radiology;
+import com.manager.RoomInventory;
+import com.manager.Specialty;
+import com.manager.Technician;
+import com.manager.Timeslot;
+
+import java.time.LocalDate;
+
+/**
+ * Builds a scheduler holding a calendar of a given size for the benchmarks.
+ * The roster grows with the calendar so every appointment fits in the booking window:
+ * four in five appointments are office visits and one in five is imaging.
+ * Every (date, time slot) pair is filled with one visit per doctor and one imaging
+ * appointment per technician before the next pair is used. Locations keep the default single
+ * room of each imaging service unless a slot holds more imaging appointments of a service than
+ * the cities have rooms, as in the largest calendars.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public final class CalendarFixture
+{
+    /** Number of days of the booking window used, starting tomorrow */
+    public static final int DAYS = 120;
+    /** Number of time slots per day */
+    public static final int SLOTS = 12;
+    /** Cities the roster is spread across */
+    private static final String[] CITIES = { "BRIDGEWATER", "EDISON", "CLARK", "PISCATAWAY", "PRINCETON", "MORRISTOWN" };
+    /** Every imaging service */
+    private static final Radiology[] ALL_SERVICES = { Radiology.XRAY, Radiology.ULTRASOUND, Radiology.CATSCAN };
+
+    /** The scheduler holding the calendar */
+    public final ClinicScheduler scheduler;
+    /** Number of doctors with appointments */
+    public final int doctors;
+    /** Number of technicians */
+    public final int technicians;
+    /** NPI of a doctor with an empty calendar */
+    public final String spareNPI;
+    /** Distinct patients appearing on the calendar */
+    public final Profile[] patients;
+
+    /**
+     * Builds a calendar holding the given number of appointments.
+     *
+     * @param appointments the number of appointments to book
+     */
+    public CalendarFixture(int appointments)
+    {
+        int capacity = DAYS * SLOTS;
+        doctors = Math.max(10, ceilDiv(appointments * 4L, 5L * capacity));
+        technicians = Math.max(6, ceilDiv(appointments, 5L * capacity));
+        int perSlot = doctors + technicians;
+
+        scheduler = new ClinicScheduler();
+        for (int i = 0; i < doctors; i++)
+            scheduler.addProvider(doctor(i));
+        for (int i = 0; i < technicians; i++)
+            scheduler.addProvider(technician(i));
+        int roomsPerService = ceilDiv(ceilDiv(technicians, ALL_SERVICES.length), CITIES.length);
+        if (roomsPerService > RoomInventory.DEFAULT_ROOMS)
+        {
+            for (String city : CITIES)
+            {
+                for (Radiology service : ALL_SERVICES)
+                    scheduler.setImagingRooms(new Location(city), service, roomsPerService);
+            }
+        }
+        spareNPI = "S" + doctors;
+        scheduler.addProvider(new Doctor(new Profile("SPARE", "DOCTOR", new Date(1970, 1, 1)),
+                new Location(CITIES[0]), Specialty.FAMILY, spareNPI));
+
+        patients = new Profile[Math.max(perSlot, appointments / 4)];
+        for (int i = 0; i < patients.length; i++)
+            patients[i] = new Profile("PATIENT" + i, "LAST" + (i % 997), new Date(1950 + i % 50, 1 + i % 12, 1 + i % 28));
+
+        for (int i = 0; i < appointments; i++)
+        {
+            int pair = i / perSlot;
+            int within = i % perSlot;
+            Date date = date(pair % DAYS);
+            Timeslot timeSlot = timeslot(pair / DAYS);
+            Profile patient = patients[i % patients.length];
+
+            if (within < doctors)
+                scheduler.bookDoctorAppointment(date, timeSlot, patient, "N" + within);
+            else
+                scheduler.bookImagingAppointment(date, timeSlot, patient, ALL_SERVICES[i % ALL_SERVICES.length]);
+        }
+    }
+
+    /**
+     * Returns the date of a day in the booking window.
+     *
+     * @param day the day index, 0 for tomorrow
+     * @return the date
+     */
+    public static Date date(int day)
+    {
+        LocalDate local = LocalDate.now().plusDays(1 + day);
+        return new Date(local.getYear(), local.getMonthValue(), local.getDayOfMonth());
+    }
+
+    /**
+     * Returns the time slot with the given zero-based index.
+     *
+     * @param slot the zero-based slot index
+     * @return the time slot
+     */
+    public static Timeslot timeslot(int slot)
+    {
+        return Timeslot.of(slot + 1);
+    }
+
+    /**
+     * Creates the doctor with the given index.
+     *
+     * @param i the doctor index
+     * @return the doctor
+     */
+    public static Doctor doctor(int i)
+    {
+        return new Doctor(new Profile("DOC" + i, "NAME" + (i % 101), new Date(1960 + i % 30, 1 + i % 12, 1 + i % 28)),
+                new Location(CITIES[i % CITIES.length]), Specialty.values()[i % Specialty.values().length], "N" + i);
+    }
+
+    /**
+     * Creates the technician with the given index.
+     *
+     * @param i the technician index
+     * @return the technician
+     */
+    public static Technician technician(int i)
+    {
+        return new Technician(new Profile("TECH" + i, "NAME" + (i % 89), new Date(1970 + i % 30, 1 + i % 12, 1 + i % 28)),
+                new Location(CITIES[i % CITIES.length]), 100 + i % 60, ALL_SERVICES);
+    }
+
+    /**
+     * Divides and rounds up.
+     *
+     * @param a the dividend
+     * @param b the divisor
+     * @return the rounded-up quotient
+     */
+    private static int ceilDiv(long a, long b)
+    {
+        return (int) ((a + b - 1) / b);
+    }
+}
@@ -0,0 +1,130 @@
+package com.manager.benchmark;
+
+import com.manager.Appointment;
+import com.manager.ClinicScheduler;
+import com.manager.Date;
+import com.manager.Profile;
+import com.manager.Timeslot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks several front desks booking and canceling on one scheduler at the same time.
+ * Each thread books the idle doctor in its own time slot, either on its own day or on a day
+ * shared with every other thread, so the two benchmarks show the cost of contending for a day.
+ * A desk needs a time slot of the shared day to itself, so at most one thread per slot can run.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentBookingBenchmark
+{
+    /** Number of threads the calendar has free slots and days for */
+    private static final int MAX_DESKS = CalendarFixture.SLOTS;
+
+    /** Number of appointments on the calendar */
+    @Param({ "100", "10000", "1000000" })
+    public int appointments;
+
+    /** The calendar under test */
+    private CalendarFixture fixture;
+    /** Hands each thread its own index */
+    private final AtomicInteger threads = new AtomicInteger();
+
+    /**
+     * Builds the calendar.
+     */
+    @Setup
+    public void setUp()
+    {
+        fixture = new CalendarFixture(appointments);
+    }
+
+    /**
+     * The bookings made by one thread.
+     */
+    @State(Scope.Thread)
+    public static class Desk
+    {
+        /** The patient booked by the thread */
+        private Profile patient;
+        /** A free day used only by this thread */
+        private Date ownDate;
+        /** A free day used by every thread */
+        private Date sharedDate;
+        /** The time slot used only by this thread */
+        private Timeslot timeSlot;
+
+        /**
+         * Picks the thread's patient, days and time slot.
+         * Own days follow the calendar's days, well inside the booking window.
+         *
+         * @param benchmark the shared benchmark state
+         * @throws IllegalStateException if more threads run than there are slots in a day
+         */
+        @Setup
+        public void setUp(ConcurrentBookingBenchmark benchmark)
+        {
+            int index = benchmark.threads.getAndIncrement();
+            if (index >= MAX_DESKS)
+                throw new IllegalStateException("At most " + MAX_DESKS + " threads can book without colliding, got thread "
+                        + (index + 1));
+            patient = new Profile("DESK" + index, "PATIENT", new Date(1990, 6, 15));
+            ownDate = CalendarFixture.date(CalendarFixture.DAYS + 1 + index);
+            sharedDate = CalendarFixture.date(CalendarFixture.DAYS);
+            timeSlot = CalendarFixture.timeslot(index);
+        }
+    }
+
+    /**
+     * Books and cancels on a day no other thread uses.
+     *
+     * @param desk the thread's bookings
+     * @return the booked appointment
+     */
+    @Benchmark
+    public Appointment bookAndCancelOwnDay(Desk desk)
+    {
+        ClinicScheduler scheduler = fixture.scheduler;
+        Appointment appointment = scheduler.bookDoctorAppointment(desk.ownDate, desk.timeSlot, desk.patient,
+                fixture.spareNPI);
+        scheduler.cancelAppointment(desk.ownDate, desk.timeSlot, desk.patient);
+        return appointment;
+    }
+
+    /**
+     * Books and cancels on a day every thread uses, each in its own time slot.
+     *
+     * @param desk the thread's bookings
+     * @return the booked appointment
+     */
+    @Benchmark
+    public Appointment bookAndCancelSharedDay(Desk desk)
+    {
+        ClinicScheduler scheduler = fixture.scheduler;
+        Appointment appointment = scheduler.bookDoctorAppointment(desk.sharedDate, desk.timeSlot, desk.patient,
+                fixture.spareNPI);
+        scheduler.cancelAppointment(desk.sharedDate, desk.timeSlot, desk.patient);
+        return appointment;
+    }
+}
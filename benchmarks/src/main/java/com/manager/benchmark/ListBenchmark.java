@@ -0,0 +1,102 @@
+package com.manager.benchmark;
+
+import com.manager.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks com.manager.List add, remove and contains on lists of increasing size.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark
+{
+    /** Number of elements in the list */
+    @Param({ "100", "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    /** A list holding the values 0 to size - 1 */
+    private List<Integer> list;
+    /** The element removed and re-added */
+    private Integer middle;
+    /** The last element of the list */
+    private Integer last;
+
+    /**
+     * Builds the list.
+     */
+    @Setup
+    public void setUp()
+    {
+        list = fill(size);
+        middle = list.get(size / 2);
+        last = list.get(size - 1);
+    }
+
+    /**
+     * Adds size elements to an empty list.
+     *
+     * @return the filled list
+     */
+    @Benchmark
+    public List<Integer> add()
+    {
+        return fill(size);
+    }
+
+    /**
+     * Removes one element, found by a linear scan, and appends it again.
+     *
+     * @return the list
+     */
+    @Benchmark
+    public List<Integer> removeAndAdd()
+    {
+        list.remove(middle);
+        list.add(middle);
+        return list;
+    }
+
+    /**
+     * Searches for the last element.
+     *
+     * @return true
+     */
+    @Benchmark
+    public boolean contains()
+    {
+        return list.contains(last);
+    }
+
+    /**
+     * Creates a list holding the values 0 to n - 1.
+     *
+     * @param n the number of elements
+     * @return the list
+     */
+    private static List<Integer> fill(int n)
+    {
+        List<Integer> filled = new List<>();
+        for (int i = 0; i < n; i++)
+            filled.add(i);
+        return filled;
+    }
+}
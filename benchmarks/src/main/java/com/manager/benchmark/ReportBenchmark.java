@@ -0,0 +1,97 @@
+package com.manager.benchmark;
+
+import com.manager.Appointment;
+import com.manager.ClinicScheduler;
+import com.manager.List;
+import com.manager.PatientBilling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the billing, credit and calendar report paths against calendars of increasing size.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark
+{
+    /** Number of appointments on the calendar */
+    @Param({ "100", "1000", "10000", "100000", "1000000" })
+    public int appointments;
+
+    /** The scheduler under test */
+    private ClinicScheduler scheduler;
+
+    /**
+     * Builds the calendar.
+     */
+    @Setup
+    public void setUp()
+    {
+        scheduler = new CalendarFixture(appointments).scheduler;
+    }
+
+    /**
+     * Aggregates the billing statement of every patient.
+     *
+     * @return the billing statement
+     */
+    @Benchmark
+    public List<PatientBilling> billingStatements()
+    {
+        return scheduler.billingStatements();
+    }
+
+    /**
+     * Aggregates the credit of every provider.
+     *
+     * @return the credit amounts
+     */
+    @Benchmark
+    public long[] providerCredits()
+    {
+        return scheduler.providerCredits();
+    }
+
+    /**
+     * Walks the calendar in date/time/provider order.
+     *
+     * @param blackhole consumes the appointments
+     */
+    @Benchmark
+    public void appointmentsByDateAndTime(Blackhole blackhole)
+    {
+        for (Appointment appointment : scheduler.appointmentsByDateAndTime())
+            blackhole.consume(appointment);
+    }
+
+    /**
+     * Walks the calendar in county/date/time order.
+     *
+     * @param blackhole consumes the appointments
+     */
+    @Benchmark
+    public void appointmentsByLocation(Blackhole blackhole)
+    {
+        for (Appointment appointment : scheduler.appointmentsByLocation())
+            blackhole.consume(appointment);
+    }
+}
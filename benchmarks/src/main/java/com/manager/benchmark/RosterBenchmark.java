@@ -0,0 +1,99 @@
+package com.manager.benchmark;
+
+import com.manager.ClinicScheduler;
+import com.manager.RosterLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading provider rosters of increasing size from disk.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterBenchmark
+{
+    /** Cities the roster is spread across */
+    private static final String[] CITIES = { "BRIDGEWATER", "EDISON", "CLARK", "PISCATAWAY", "PRINCETON", "MORRISTOWN" };
+    /** Specialties the doctors are spread across */
+    private static final String[] SPECIALTIES = { "FAMILY", "PEDIATRICIAN", "ALLERGIST" };
+
+    /** Number of providers in the roster */
+    @Param({ "100", "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    /** The roster file */
+    private Path roster;
+
+    /**
+     * Writes a roster of size providers, one technician for every four doctors.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException
+    {
+        roster = Files.createTempFile("roster", ".txt");
+        try (BufferedWriter out = Files.newBufferedWriter(roster))
+        {
+            for (int i = 0; i < size; i++)
+            {
+                String dob = (1 + i % 12) + "/" + (1 + i % 28) + "/" + (1960 + i % 30);
+                String city = CITIES[i % CITIES.length];
+                if (i % 5 == 4)
+                    out.write("T TECH" + i + " NAME" + (i % 89) + " " + dob + " " + city + " " + (100 + i % 60));
+                else
+                    out.write("D DOC" + i + " NAME" + (i % 101) + " " + dob + " " + city + " "
+                            + SPECIALTIES[i % SPECIALTIES.length] + " N" + i);
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Deletes the roster file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(roster);
+    }
+
+    /**
+     * Loads the roster into an empty scheduler.
+     *
+     * @return the loaded scheduler
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public ClinicScheduler load() throws IOException
+    {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        new RosterLoader(scheduler).load(roster);
+        return scheduler;
+    }
+}
@@ -0,0 +1,153 @@
+package com.manager.benchmark;
+
+import com.manager.Appointment;
+import com.manager.ClinicScheduler;
+import com.manager.Date;
+import com.manager.Doctor;
+import com.manager.Profile;
+import com.manager.Radiology;
+import com.manager.Technician;
+import com.manager.Timeslot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scheduler's booking hot paths against calendars of increasing size.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark
+{
+    /** Number of appointments on the calendar */
+    @Param({ "100", "1000", "10000", "100000", "1000000" })
+    public int appointments;
+
+    /** The calendar under test */
+    private CalendarFixture fixture;
+    /** The scheduler under test */
+    private ClinicScheduler scheduler;
+    /** A booked appointment */
+    private Appointment booked;
+    /** A patient who is not on the calendar */
+    private Profile newPatient;
+    /** The first date of the calendar, where every technician slot is taken */
+    private Date fullDate;
+    /** The last date of the booking window, which has no imaging appointments */
+    private Date freeDate;
+    /** The first time slot */
+    private Timeslot firstSlot;
+
+    /**
+     * Builds the calendar.
+     */
+    @Setup
+    public void setUp()
+    {
+        fixture = new CalendarFixture(appointments);
+        scheduler = fixture.scheduler;
+        booked = scheduler.getAppointments().get(appointments / 2);
+        newPatient = new Profile("NEW", "PATIENT", new Date(1990, 6, 15));
+        fullDate = CalendarFixture.date(0);
+        freeDate = CalendarFixture.date(CalendarFixture.DAYS + 30);
+        firstSlot = CalendarFixture.timeslot(0);
+    }
+
+    /**
+     * Books an office visit with an idle doctor and cancels it again.
+     *
+     * @return the booked appointment
+     */
+    @Benchmark
+    public Appointment bookAndCancelDoctorAppointment()
+    {
+        Appointment appointment = scheduler.bookDoctorAppointment(freeDate, firstSlot, newPatient, fixture.spareNPI);
+        scheduler.cancelAppointment(freeDate, firstSlot, newPatient);
+        return appointment;
+    }
+
+    /**
+     * Books an imaging appointment and cancels it again.
+     *
+     * @return the booked appointment
+     */
+    @Benchmark
+    public Appointment bookAndCancelImagingAppointment()
+    {
+        Appointment appointment = scheduler.bookImagingAppointment(freeDate, firstSlot, newPatient, Radiology.XRAY);
+        scheduler.cancelAppointment(freeDate, firstSlot, newPatient);
+        return appointment;
+    }
+
+    /**
+     * Checks for a conflicting appointment that exists.
+     *
+     * @return the conflicting appointment
+     */
+    @Benchmark
+    public Appointment conflictCheckHit()
+    {
+        return scheduler.findAppointment(booked.getDate(), booked.getTimeSlot(), booked.getPatient().getProfile());
+    }
+
+    /**
+     * Checks for a conflicting appointment that does not exist.
+     *
+     * @return null
+     */
+    @Benchmark
+    public Appointment conflictCheckMiss()
+    {
+        return scheduler.findAppointment(booked.getDate(), booked.getTimeSlot(), newPatient);
+    }
+
+    /**
+     * Finds a technician on a date where every technician is free.
+     *
+     * @return the technician found
+     */
+    @Benchmark
+    public Technician findAvailableTechnicianFree()
+    {
+        return scheduler.findAvailableTechnician(freeDate, Radiology.CATSCAN, firstSlot);
+    }
+
+    /**
+     * Searches for a technician in a time slot where every technician is booked.
+     *
+     * @return null
+     */
+    @Benchmark
+    public Technician findAvailableTechnicianFull()
+    {
+        return scheduler.findAvailableTechnician(fullDate, Radiology.CATSCAN, firstSlot);
+    }
+
+    /**
+     * Looks up a doctor by NPI.
+     *
+     * @return the doctor
+     */
+    @Benchmark
+    public Doctor findProviderByNPI()
+    {
+        return scheduler.findProviderByNPI(fixture.spareNPI);
+    }
+}
@@ -0,0 +1,202 @@
+package com.manager.benchmark;
+
+import com.manager.Appointment;
+import com.manager.List;
+import com.manager.Patient;
+import com.manager.Profile;
+import com.manager.Provider;
+import com.manager.Sort;
+import com.manager.Technician;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every Sort method on shuffled lists of increasing size.
+ * Each invocation sorts a fresh copy of the shuffled input; the copy is a single
+ * array copy and is small next to the sort itself.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark
+{
+    /** Number of elements to sort */
+    @Param({ "100", "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    /** Shuffled appointments */
+    private List<Appointment> appointments;
+    /** Shuffled providers */
+    private List<Provider> providers;
+    /** Shuffled patients */
+    private List<Patient> patients;
+    /** Shuffled technicians */
+    private List<Technician> technicians;
+
+    /**
+     * Builds the shuffled inputs.
+     */
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(42);
+        List<Appointment> booked = new CalendarFixture(size).scheduler.getAppointments();
+        appointments = shuffled(booked, random);
+
+        providers = new List<>(size);
+        patients = new List<>(size);
+        technicians = new List<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            int key = random.nextInt(size);
+            providers.add(key % 2 == 0 ? CalendarFixture.doctor(key) : CalendarFixture.technician(key));
+            patients.add(new Patient(new Profile("PATIENT" + key, "LAST" + (key % 997),
+                    new com.manager.Date(1950 + key % 50, 1 + key % 12, 1 + key % 28))));
+            technicians.add(CalendarFixture.technician(key));
+        }
+    }
+
+    /**
+     * Sorts appointments by date and time slot.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Appointment> sortAppointmentsByDateAndTime()
+    {
+        List<Appointment> copy = copy(appointments);
+        Sort.sortAppointmentsByDateAndTime(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts appointments by patient.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Appointment> sortAppointmentsByPatient()
+    {
+        List<Appointment> copy = copy(appointments);
+        Sort.sortAppointmentsByPatient(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts appointments by location, date and time slot.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Appointment> sortAppointmentsByLocation()
+    {
+        List<Appointment> copy = copy(appointments);
+        Sort.sortAppointmentsByLocation(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts providers by profile.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Provider> sortProvidersByProfile()
+    {
+        List<Provider> copy = copy(providers);
+        Sort.sortProvidersByProfile(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts patients by profile.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Patient> sortPatientsByProfile()
+    {
+        List<Patient> copy = copy(patients);
+        Sort.sortPatientsByProfile(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts technicians by rate.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Technician> sortTechniciansByRate()
+    {
+        List<Technician> copy = copy(technicians);
+        Sort.sortTechniciansByRate(copy);
+        return copy;
+    }
+
+    /**
+     * Sorts technicians into rotation order.
+     *
+     * @return the sorted copy
+     */
+    @Benchmark
+    public List<Technician> sortTechniciansByLocationAndRate()
+    {
+        List<Technician> copy = copy(technicians);
+        Sort.sortTechniciansByLocationAndRate(copy);
+        return copy;
+    }
+
+    /**
+     * Copies a list.
+     *
+     * @param source the list to copy
+     * @param <E>    the element type
+     * @return the copy
+     */
+    private static <E> List<E> copy(List<E> source)
+    {
+        List<E> copy = new List<>(source.size());
+        copy.addAll(source);
+        return copy;
+    }
+
+    /**
+     * Returns a shuffled copy of a list.
+     *
+     * @param source the list to shuffle
+     * @param random the source of randomness
+     * @param <E>    the element type
+     * @return the shuffled copy
+     */
+    private static <E> List<E> shuffled(List<E> source, Random random)
+    {
+        List<E> copy = copy(source);
+        for (int i = copy.size() - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            E swap = copy.get(i);
+            copy.set(i, copy.get(j));
+            copy.set(j, swap);
+        }
+        return copy;
+    }
+}
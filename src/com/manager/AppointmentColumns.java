@@ -0,0 +1,229 @@
+package com.manager;
+
+import java.util.Arrays;
+
+/**
+ * Columnar block of one day's appointments for report scans.
+ * Each appointment is a row of parallel primitive arrays: the zero-based slot index, the
+ * registry id of the patient, the id of the provider, the imaging service (-1 for an office
+ * visit) and the room number. Totals over the calendar walk these arrays front to back instead
+ * of chasing the Date, Timeslot and Person objects of every appointment.
+ * Rows are unordered; a removed row is filled with the last row. Rows are found by patient and
+ * slot through an open-addressing table of row numbers, so a cancellation does not scan the day.
+ * The block only feeds the totals: the store serves appointments from its own index.
+ * A block belongs to one day of the AppointmentStore and is guarded by that day's lock,
+ * so bookings on different days never contend for it.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class AppointmentColumns
+{
+    /** Initial number of rows allocated */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Zero-based slot index of each row */
+    private byte[] slots;
+    /** Patient id of each row */
+    private int[] patientIds;
+    /** Provider id of each row */
+    private int[] providerIds;
+    /** Radiology ordinal of each row, -1 for an office visit */
+    private byte[] services;
+    /** Imaging room number of each row, 0 for an office visit */
+    private byte[] roomNumbers;
+    /** Number of rows in use */
+    private int size;
+    /** Linear-probing table of row + 1 by patient and slot, 0 for a free entry, twice the capacity long */
+    private int[] index;
+
+    /**
+     * Creates an empty block for a day.
+     */
+    public AppointmentColumns()
+    {
+        slots = new byte[INITIAL_CAPACITY];
+        patientIds = new int[INITIAL_CAPACITY];
+        providerIds = new int[INITIAL_CAPACITY];
+        services = new byte[INITIAL_CAPACITY];
+        roomNumbers = new byte[INITIAL_CAPACITY];
+        index = new int[INITIAL_CAPACITY * 2];
+    }
+
+    /**
+     * Appends an appointment as a row. The caller holds the day's write lock.
+     *
+     * @param appointment the appointment, dated on the block's day
+     * @param patientId   the registry id of the appointment's patient
+     */
+    public void add(Appointment appointment, int patientId)
+    {
+        if (size == slots.length)
+            grow();
+
+        slots[size] = (byte) (appointment.getTimeSlot().getSlotIndex() - 1);
+        patientIds[size] = patientId;
+        providerIds[size] = appointment.getProvider().getId();
+        if (appointment instanceof Imaging)
+        {
+            Imaging imaging = (Imaging) appointment;
+            services[size] = (byte) imaging.getRoom().ordinal();
+            roomNumbers[size] = (byte) imaging.getRoomNumber();
+        }
+        else
+        {
+            services[size] = -1;
+            roomNumbers[size] = 0;
+        }
+        int entry = home(patientId, slots[size]);
+        while (index[entry] != 0)
+            entry = (entry + 1) & (index.length - 1);
+        index[entry] = ++size;
+    }
+
+    /**
+     * Removes the row of an appointment, moving the last row into its place.
+     * The caller holds the day's write lock.
+     *
+     * @param appointment the appointment, dated on the block's day
+     * @param patientId   the registry id of the appointment's patient
+     */
+    public void remove(Appointment appointment, int patientId)
+    {
+        int entry = find(patientId, (byte) (appointment.getTimeSlot().getSlotIndex() - 1));
+        if (entry < 0)
+            return;
+
+        int row = index[entry] - 1;
+        unindex(entry);
+        int last = --size;
+        if (row == last)
+            return;
+
+        index[find(patientIds[last], slots[last])] = row + 1;
+        slots[row] = slots[last];
+        patientIds[row] = patientIds[last];
+        providerIds[row] = providerIds[last];
+        services[row] = services[last];
+        roomNumbers[row] = roomNumbers[last];
+    }
+
+    /**
+     * Removes every row. The caller holds the day's write lock.
+     */
+    public void clear()
+    {
+        size = 0;
+        Arrays.fill(index, 0);
+    }
+
+    /**
+     * Adds the rate of every appointment to its provider's total. The caller holds the day's lock.
+     *
+     * @param rates  the rate per visit of each provider, indexed by provider id
+     * @param totals the total of each provider, indexed by provider id
+     */
+    public void sumByProvider(int[] rates, long[] totals)
+    {
+        for (int row = 0; row < size; row++)
+            totals[providerIds[row]] += rates[providerIds[row]];
+    }
+
+    /**
+     * Adds the rate of every appointment to its patient's total and counts the appointments.
+     * Patients with ids beyond the arrays, registered after the caller sized them, are left out.
+     * The caller holds the day's lock.
+     *
+     * @param rates  the rate per visit of each provider, indexed by provider id
+     * @param totals the total of each patient, indexed by patient id
+     * @param visits the number of appointments of each patient, indexed by patient id
+     */
+    public void sumByPatient(int[] rates, long[] totals, int[] visits)
+    {
+        for (int row = 0; row < size; row++)
+        {
+            int patient = patientIds[row];
+            if (patient >= totals.length)
+                continue;
+            totals[patient] += rates[providerIds[row]];
+            visits[patient]++;
+        }
+    }
+
+    /**
+     * Returns the index entry holding the row of a patient's appointment at a slot.
+     *
+     * @param patientId the registry id of the patient
+     * @param slot      the zero-based slot index
+     * @return the entry, or -1 if the block has no such row
+     */
+    private int find(int patientId, byte slot)
+    {
+        int mask = index.length - 1;
+        for (int entry = home(patientId, slot); index[entry] != 0; entry = (entry + 1) & mask)
+        {
+            int row = index[entry] - 1;
+            if (patientIds[row] == patientId && slots[row] == slot)
+                return entry;
+        }
+        return -1;
+    }
+
+    /**
+     * Frees an index entry, shifting back the entries after it that probed past it
+     * so that every row stays reachable from its home entry.
+     *
+     * @param entry the entry to free
+     */
+    private void unindex(int entry)
+    {
+        int mask = index.length - 1;
+        int hole = entry;
+        for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask)
+        {
+            int row = index[next] - 1;
+            int home = home(patientIds[row], slots[row]);
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                index[hole] = index[next];
+                hole = next;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    /**
+     * Returns the index entry a patient's row at a slot is probed from.
+     *
+     * @param patientId the registry id of the patient
+     * @param slot      the zero-based slot index
+     * @return the home entry
+     */
+    private int home(int patientId, byte slot)
+    {
+        int hash = (patientId * 31 + slot) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (index.length - 1);
+    }
+
+    /**
+     * Doubles the capacity of every column and rebuilds the index at twice the new capacity.
+     */
+    private void grow()
+    {
+        int capacity = slots.length * 2;
+        slots = Arrays.copyOf(slots, capacity);
+        patientIds = Arrays.copyOf(patientIds, capacity);
+        providerIds = Arrays.copyOf(providerIds, capacity);
+        services = Arrays.copyOf(services, capacity);
+        roomNumbers = Arrays.copyOf(roomNumbers, capacity);
+        index = new int[capacity * 2];
+        int mask = index.length - 1;
+        for (int row = 0; row < size; row++)
+        {
+            int entry = home(patientIds[row], slots[row]);
+            while (index[entry] != 0)
+                entry = (entry + 1) & mask;
+            index[entry] = row + 1;
+        }
+    }
+}
@@ -0,0 +1,706 @@
+package com.manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Off-heap archive of past appointments, filled when the calendar is cleared after billing.
+ * Each appointment is a fixed 16-byte record
+ * <pre>
+ * int epochDay  byte slot  byte service  byte room  byte unused  int patientKey  int providerKey
+ * </pre>
+ * where the slot is the zero-based slot index, the service is -1 for an office visit and the
+ * Radiology ordinal for imaging, and the keys number the history's own table of the people it
+ * has archived, in the order they were first archived. Registry and roster ids change from one
+ * run of the clinic to the next; the keys do not.
+ * Records live in chunks of direct memory, or of a memory-mapped file, so years of history
+ * add nothing to the Java heap for the garbage collector to trace.
+ * Records are appended a cleared calendar at a time in date order. The history is a series
+ * of runs of non-decreasing dates, a new run starting whenever a record is dated before the one
+ * ahead of it, and a date range scan binary searches each run that overlaps the range.
+ * Only the run boundaries and the people table are kept on the heap.
+ * <p>
+ * A file-mapped history survives restarts. The file starts with a header holding the number of
+ * records, the journal LSN of the last calendar clear archived and the length of the people
+ * table, rewritten by {@link #commit(long)} once the records and people are on disk, and the
+ * people table is appended to a file of the same name with a {@code .people} suffix. Reopening the file loads both, so a
+ * clear replayed from the journal can tell whether its appointments are already archived.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class AppointmentHistory
+{
+    /** Bytes of each record */
+    private static final int RECORD_BYTES = 16;
+    /** Log2 of the number of records in a chunk */
+    private static final int CHUNK_SHIFT = 16;
+    /** Number of records in a chunk */
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    /** Bytes of each chunk */
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_BYTES;
+    /** Bytes of the file header ahead of the first chunk */
+    private static final int HEADER_BYTES = 64;
+    /** First int of a history file */
+    private static final int MAGIC = 0x48495354;
+    /** Format version of the history file */
+    private static final int VERSION = 2;
+    /** Kind of a people table entry for a patient */
+    private static final byte PATIENT = 0;
+    /** Kind of a people table entry for a provider */
+    private static final byte PROVIDER = 1;
+
+    /** The file the chunks are mapped from, or null if they are in direct memory */
+    private final FileChannel file;
+    /** The file the people table is appended to, or null if it is only kept in memory */
+    private final FileChannel people;
+    /** Guards the records and the people table */
+    private final StampedLock lock;
+    /** The chunks holding the records */
+    private final List<ByteBuffer> chunks;
+    /** The archived patients, indexed by patient key */
+    private final List<Patient> patientTable;
+    /** The archived providers, indexed by provider key, null if not on the current roster */
+    private final List<Provider> providerTable;
+    /** The profiles of the archived providers, indexed by provider key */
+    private final List<Profile> providerProfiles;
+    /** Keys of the patients archived by an earlier run and not yet archived by this one, by profile */
+    private final HashMap<Profile, Integer> earlierPatients;
+
+    /** One more than the patient key of each registry id, 0 if the patient is not archived */
+    private int[] patientKeys;
+    /** One more than the provider key of each roster id, 0 if the provider is not archived */
+    private int[] providerKeys;
+    /** Index of the first record of each run, valid up to runCount */
+    private long[] runStarts;
+    /** Number of runs */
+    private int runCount;
+    /** Number of records */
+    private long size;
+    /** Number of records on disk as of the last commit */
+    private long committed;
+    /** Journal LSN of the last calendar clear archived */
+    private long archivedLsn;
+    /** Offset in the people file past its last complete entry */
+    private long peopleEnd;
+
+    /**
+     * Creates an empty history held in direct memory.
+     */
+    public AppointmentHistory()
+    {
+        this((FileChannel) null, null);
+    }
+
+    /**
+     * Opens a history held in a memory-mapped file, creating the file if it does not exist and
+     * loading the appointments archived in it otherwise.
+     * The operating system pages the records in and out, so the history can outgrow physical memory.
+     * Archived patients are kept out of the patient registry, which only holds the patients
+     * who booked in this run, and are matched to their key by profile if they are archived again.
+     * Archived providers are matched to the roster by profile, and the appointments of providers
+     * no longer on it are left out of every search.
+     *
+     * @param roster the provider roster
+     * @param file   the file to map
+     * @throws IOException if the file cannot be opened or is not a history file
+     */
+    public AppointmentHistory(List<Provider> roster, Path file) throws IOException
+    {
+        this(open(file), open(file.resolveSibling(file.getFileName() + ".people")));
+        try
+        {
+            load(roster);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty history.
+     *
+     * @param file   the file to map the chunks from, or null for direct memory
+     * @param people the file to append the people table to, or null to keep it only in memory
+     */
+    private AppointmentHistory(FileChannel file, FileChannel people)
+    {
+        this.file = file;
+        this.people = people;
+        lock = new StampedLock();
+        chunks = new List<>();
+        patientTable = new List<>();
+        providerTable = new List<>();
+        providerProfiles = new List<>();
+        earlierPatients = new HashMap<>();
+        patientKeys = new int[64];
+        providerKeys = new int[8];
+        runStarts = new long[8];
+    }
+
+    /**
+     * Appends an appointment to the history. The appointment is on disk once the history
+     * is next committed.
+     *
+     * @param appointment the appointment
+     * @param patient     the canonical patient of the appointment, as held by the patient registry
+     * @throws UncheckedIOException if the history file cannot grow
+     */
+    public void append(Appointment appointment, Patient patient)
+    {
+        int epochDay = appointment.getDate().toEpochDay();
+        long stamp = lock.writeLock();
+        try
+        {
+            int patientKey = patientKey(patient);
+            int providerKey = providerKey(appointment.getProvider());
+            if (size == (long) chunks.size() * CHUNK_RECORDS)
+                chunks.add(allocate(chunks.size()));
+            if (runCount == 0 || epochDay < epochDay(size - 1))
+                addRun(size);
+
+            ByteBuffer chunk = chunks.get((int) (size >>> CHUNK_SHIFT));
+            int offset = offset(size);
+            chunk.putInt(offset, epochDay);
+            chunk.put(offset + 4, (byte) (appointment.getTimeSlot().getSlotIndex() - 1));
+            if (appointment instanceof Imaging)
+            {
+                Imaging imaging = (Imaging) appointment;
+                chunk.put(offset + 5, (byte) imaging.getRoom().ordinal());
+                chunk.put(offset + 6, (byte) imaging.getRoomNumber());
+            }
+            else
+            {
+                chunk.put(offset + 5, (byte) -1);
+                chunk.put(offset + 6, (byte) 0);
+            }
+            chunk.put(offset + 7, (byte) 0);
+            chunk.putInt(offset + 8, patientKey);
+            chunk.putInt(offset + 12, providerKey);
+            size++;
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Marks a cleared calendar as archived. A file-mapped history forces its records and people
+     * table to disk and then rewrites the header, so a crash before the header is written
+     * leaves the history as of the previous commit.
+     *
+     * @param lsn the journal LSN of the calendar clear, 0 if the clear was not journaled
+     * @throws UncheckedIOException if the history cannot be written to disk
+     */
+    public void commit(long lsn)
+    {
+        long stamp = lock.writeLock();
+        try
+        {
+            archivedLsn = Math.max(archivedLsn, lsn);
+            if (file == null)
+                return;
+
+            for (int chunk = (int) (committed >>> CHUNK_SHIFT); chunk < chunks.size(); chunk++)
+                ((MappedByteBuffer) chunks.get(chunk)).force();
+            people.force(false);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(size).putLong(archivedLsn).putLong(peopleEnd).rewind();
+            file.write(header, 0);
+            file.force(false);
+            committed = size;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the journal LSN of the last calendar clear archived.
+     *
+     * @return the LSN, 0 if no journaled clear has been archived
+     */
+    public long getArchivedLsn()
+    {
+        long stamp = lock.readLock();
+        try
+        {
+            return archivedLsn;
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of appointments in the history.
+     *
+     * @return the record count
+     */
+    public long size()
+    {
+        long stamp = lock.readLock();
+        try
+        {
+            return size;
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the past appointments within a date range.
+     *
+     * @param from the first date, inclusive
+     * @param to   the last date, inclusive
+     * @return the appointments, in date order within each archived calendar
+     */
+    public List<Appointment> findByDate(Date from, Date to)
+    {
+        return find(from, to, null);
+    }
+
+    /**
+     * Finds the past appointments of a provider within a date range.
+     *
+     * @param provider the provider
+     * @param from     the first date, inclusive
+     * @param to       the last date, inclusive
+     * @return the appointments, in date order within each archived calendar
+     */
+    public List<Appointment> findByProvider(Provider provider, Date from, Date to)
+    {
+        return find(from, to, provider);
+    }
+
+    /**
+     * Closes the history files, if the history is file-mapped.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    public void close() throws IOException
+    {
+        if (file != null)
+            file.close();
+        if (people != null)
+            people.close();
+    }
+
+    /**
+     * Scans every run overlapping a date range for the records in it.
+     *
+     * @param from     the first date, inclusive
+     * @param to       the last date, inclusive
+     * @param provider the provider to keep, or null for every provider
+     * @return the appointments
+     */
+    private List<Appointment> find(Date from, Date to, Provider provider)
+    {
+        int fromDay = from.toEpochDay();
+        int toDay = to.toEpochDay();
+        List<Appointment> found = new List<>();
+        long stamp = lock.readLock();
+        try
+        {
+            int providerKey = -1;
+            if (provider != null)
+            {
+                int id = provider.getId();
+                providerKey = id >= 0 && id < providerKeys.length ? providerKeys[id] - 1 : -1;
+                if (providerKey < 0)
+                    return found;
+            }
+
+            for (int run = 0; run < runCount; run++)
+            {
+                long start = runStarts[run];
+                long end = run + 1 < runCount ? runStarts[run + 1] : size;
+                if (epochDay(start) > toDay || epochDay(end - 1) < fromDay)
+                    continue;
+
+                for (long record = firstOnOrAfter(start, end, fromDay); record < end; record++)
+                {
+                    ByteBuffer chunk = chunks.get((int) (record >>> CHUNK_SHIFT));
+                    int offset = offset(record);
+                    if (chunk.getInt(offset) > toDay)
+                        break;
+                    if (providerKey >= 0 && chunk.getInt(offset + 12) != providerKey)
+                        continue;
+                    Appointment appointment = appointment(chunk, offset);
+                    if (appointment != null)
+                        found.add(appointment);
+                }
+            }
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+        return found;
+    }
+
+    /**
+     * Binary searches a run for its first record on or after a day.
+     *
+     * @param start    the first record of the run
+     * @param end      one past the last record of the run
+     * @param epochDay the day as days since 1/1/1970
+     * @return the record, or end if every record is earlier
+     */
+    private long firstOnOrAfter(long start, long end, int epochDay)
+    {
+        long low = start;
+        long high = end;
+        while (low < high)
+        {
+            long middle = (low + high) >>> 1;
+            if (epochDay(middle) < epochDay)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Builds the appointment held in a record.
+     *
+     * @param chunk  the chunk holding the record
+     * @param offset the offset of the record in the chunk
+     * @return a new appointment with the record's date, time slot, patient and provider,
+     * or null if the provider is no longer on the roster
+     */
+    private Appointment appointment(ByteBuffer chunk, int offset)
+    {
+        Provider provider = providerTable.get(chunk.getInt(offset + 12));
+        if (provider == null)
+            return null;
+
+        Date date = Date.ofEpochDay(chunk.getInt(offset));
+        Timeslot timeSlot = Timeslot.of(chunk.get(offset + 4) + 1);
+        byte service = chunk.get(offset + 5);
+        Patient patient = patientTable.get(chunk.getInt(offset + 8));
+        if (service < 0)
+            return new Appointment(date, timeSlot, patient, provider);
+        return new Imaging(date, timeSlot, patient, (Technician) provider, Radiology.values()[service],
+                chunk.get(offset + 6) & 0xFF);
+    }
+
+    /**
+     * Returns the key of an archived patient, adding them to the people table if they are new.
+     * A patient archived by an earlier run keeps their key. The caller holds the write lock.
+     *
+     * @param patient the canonical patient
+     * @return the patient key
+     * @throws UncheckedIOException if the people table cannot be written
+     */
+    private int patientKey(Patient patient)
+    {
+        int id = patient.getId();
+        if (id >= patientKeys.length)
+            patientKeys = Arrays.copyOf(patientKeys, Math.max(id + 1, patientKeys.length * 2));
+        int key = patientKeys[id] - 1;
+        if (key >= 0)
+            return key;
+
+        Integer earlier = earlierPatients.remove(patient.getProfile());
+        if (earlier != null)
+        {
+            patientKeys[id] = earlier + 1;
+            return earlier;
+        }
+        writePerson(PATIENT, patient.getProfile());
+        key = patientTable.size();
+        patientTable.add(patient);
+        patientKeys[id] = key + 1;
+        return key;
+    }
+
+    /**
+     * Returns the key of an archived provider, adding them to the people table if they are new.
+     * A provider archived by an earlier run keeps their key. The caller holds the write lock.
+     *
+     * @param provider the provider
+     * @return the provider key
+     * @throws UncheckedIOException if the people table cannot be written
+     */
+    private int providerKey(Provider provider)
+    {
+        int id = provider.getId();
+        int key = id < providerKeys.length ? providerKeys[id] - 1 : -1;
+        if (key >= 0)
+            return key;
+
+        key = providerProfiles.indexOf(provider.getProfile());
+        if (key >= 0)
+        {
+            // archived by an earlier run, then missing from the roster when the history was opened
+            providerTable.set(key, provider);
+            setProviderKey(id, key);
+            return key;
+        }
+        writePerson(PROVIDER, provider.getProfile());
+        return addProvider(provider.getProfile(), provider);
+    }
+
+    /**
+     * Adds a provider to the people table in memory. The caller holds the write lock.
+     *
+     * @param profile  the profile of the provider
+     * @param provider the provider, or null if they are not on the roster
+     * @return the provider key
+     */
+    private int addProvider(Profile profile, Provider provider)
+    {
+        int key = providerTable.size();
+        providerTable.add(provider);
+        providerProfiles.add(profile);
+        if (provider != null)
+            setProviderKey(provider.getId(), key);
+        return key;
+    }
+
+    /**
+     * Maps a roster id to a provider key. The caller holds the write lock.
+     *
+     * @param id  the roster id of the provider
+     * @param key the provider key
+     */
+    private void setProviderKey(int id, int key)
+    {
+        if (id >= providerKeys.length)
+            providerKeys = Arrays.copyOf(providerKeys, Math.max(id + 1, providerKeys.length * 2));
+        providerKeys[id] = key + 1;
+    }
+
+    /**
+     * Appends an entry to the people file, if the history is file-mapped.
+     * Each entry is a kind byte followed by the first and last names, each as an int UTF-8
+     * length and its bytes, and the packed date of birth.
+     *
+     * @param kind    PATIENT or PROVIDER
+     * @param profile the profile of the person
+     * @throws UncheckedIOException if the entry cannot be written
+     */
+    private void writePerson(byte kind, Profile profile)
+    {
+        if (people == null)
+            return;
+
+        byte[] first = profile.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] last = profile.getLastName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(1 + 3 * Integer.BYTES + first.length + last.length);
+        entry.put(kind).putInt(first.length).put(first).putInt(last.length).put(last);
+        entry.putInt(profile.getDateOfBirth().toPacked()).flip();
+        // peopleEnd moves only past a whole entry, so a partly written one is overwritten by
+        // the next entry or cut off when the history is reopened
+        long position = peopleEnd;
+        try
+        {
+            while (entry.hasRemaining())
+                position += people.write(entry, position);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        peopleEnd = position;
+    }
+
+    /**
+     * Loads the people table and the committed records of the history files.
+     * Entries of the people file past the length in the header, and records past the committed
+     * count, are the remains of a run that stopped before its next commit: the people file is
+     * cut back to that length and the records are overwritten.
+     *
+     * @param roster the provider roster
+     * @throws IOException if the files cannot be read or the history file is not one
+     */
+    private void load(List<Provider> roster) throws IOException
+    {
+        long peopleCommitted = 0;
+        if (file.size() >= HEADER_BYTES)
+        {
+            ByteBuffer header = read(file, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException("Not an appointment history file");
+            size = header.getLong();
+            archivedLsn = header.getLong();
+            peopleCommitted = header.getLong();
+            committed = size;
+        }
+        if (people.size() > peopleCommitted)
+        {
+            people.truncate(peopleCommitted);
+            people.force(false);
+        }
+
+        HashMap<Profile, Provider> providers = new HashMap<>();
+        for (Provider provider : roster)
+            providers.put(provider.getProfile(), provider);
+        ByteBuffer table = read(people, (int) peopleCommitted);
+        while (true)
+        {
+            int start = table.position();
+            Profile profile = readPerson(table);
+            if (profile == null)
+                break;
+            peopleEnd = table.position();
+            if (table.get(start) == PATIENT)
+            {
+                earlierPatients.put(profile, patientTable.size());
+                patientTable.add(new Patient(profile));
+            }
+            else
+                addProvider(profile, providers.get(profile));
+        }
+
+        for (long record = 0; record < size; record++)
+        {
+            if (record == (long) chunks.size() * CHUNK_RECORDS)
+                chunks.add(allocate(chunks.size()));
+            if (record == 0 || epochDay(record) < epochDay(record - 1))
+                addRun(record);
+        }
+    }
+
+    /**
+     * Reads the start of a file.
+     *
+     * @param channel the file
+     * @param bytes   the number of bytes to read
+     * @return the bytes, as many as the file holds up to the number asked for
+     * @throws IOException if the file cannot be read
+     */
+    private static ByteBuffer read(FileChannel channel, int bytes) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0)
+            read = channel.read(buffer, buffer.position());
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes the next entry of the people table, checking it is complete.
+     *
+     * @param table the people table, positioned at the entry
+     * @return the profile of the entry, or null if the entry is cut short
+     */
+    private static Profile readPerson(ByteBuffer table)
+    {
+        if (table.remaining() < 1 + Integer.BYTES)
+            return null;
+        table.get();
+        String first = readName(table);
+        String last = first == null ? null : readName(table);
+        if (last == null || table.remaining() < Integer.BYTES)
+            return null;
+        return new Profile(first, last, Date.ofPacked(table.getInt()));
+    }
+
+    /**
+     * Decodes a name, checking it is complete.
+     *
+     * @param table the people table, positioned at the name
+     * @return the name, or null if it is cut short
+     */
+    private static String readName(ByteBuffer table)
+    {
+        if (table.remaining() < Integer.BYTES)
+            return null;
+        int length = table.getInt();
+        if (length < 0 || length > table.remaining())
+            return null;
+        byte[] bytes = new byte[length];
+        table.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Starts a run at a record.
+     *
+     * @param record the first record of the run
+     */
+    private void addRun(long record)
+    {
+        if (runCount == runStarts.length)
+            runStarts = Arrays.copyOf(runStarts, runCount * 2);
+        runStarts[runCount++] = record;
+    }
+
+    /**
+     * Returns the day of a record.
+     *
+     * @param record the record
+     * @return the day as days since 1/1/1970
+     */
+    private int epochDay(long record)
+    {
+        return chunks.get((int) (record >>> CHUNK_SHIFT)).getInt(offset(record));
+    }
+
+    /**
+     * Returns the offset of a record within its chunk.
+     *
+     * @param record the record
+     * @return the byte offset
+     */
+    private static int offset(long record)
+    {
+        return (int) (record & (CHUNK_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    /**
+     * Allocates a chunk, in direct memory or mapped from the history file past its header.
+     *
+     * @param index the index of the chunk
+     * @return the chunk
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    private ByteBuffer allocate(int index)
+    {
+        if (file == null)
+            return ByteBuffer.allocateDirect(CHUNK_BYTES);
+        try
+        {
+            return file.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + (long) index * CHUNK_BYTES, CHUNK_BYTES);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a history file for reading and writing, creating it if it does not exist.
+     *
+     * @param file the file
+     * @return the channel
+     * @throws IOException if the file cannot be opened
+     */
+    private static FileChannel open(Path file) throws IOException
+    {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,682 @@
+package com.manager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead log of appointment bookings, cancellations and reschedules.
+ * The log is a directory of segment files named after the log sequence number (LSN) of their
+ * first record. A segment is closed and a new one started once it grows past the segment size.
+ * Each record is framed as
+ * <pre>
+ * int length  int crc32  long lsn  byte type  fields...
+ * </pre>
+ * so a record torn by a crash fails its checksum and marks the end of the log.
+ *
+ * Records are appended by the AppointmentStore under the lock of the day they change, so the log
+ * order matches the order the changes were made in. Appending only writes to the file; callers
+ * then wait in {@link #sync()} for the record to reach the disk. Syncs are group commits: one
+ * thread forces the file for every record written so far, and threads that arrive while it does
+ * find their records already durable, so one fsync covers a whole batch of bookings.
+ *
+ * On startup the log is checked and any torn tail is cut off, and {@link #replay(ClinicScheduler, long)}
+ * rebuilds the calendar and provider availability by applying each record to the scheduler.
+ * Providers are matched by profile, so a log stays valid when the roster is reordered.
+ * Once a CalendarSnapshot holds the changes up to an LSN, the segments before it can be deleted,
+ * so only the tail after the snapshot is replayed.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class AppointmentJournal implements Closeable
+{
+    /** Size past which a segment is closed and a new one started */
+    public static final long DEFAULT_SEGMENT_BYTES = 16L << 20;
+    /** Record type of a booking */
+    private static final byte BOOK = 1;
+    /** Record type of a cancellation */
+    private static final byte CANCEL = 2;
+    /** Record type of a reschedule */
+    private static final byte RESCHEDULE = 3;
+    /** Record type of clearing the calendar */
+    private static final byte CLEAR = 4;
+    /** Bytes of the length and checksum before each record */
+    private static final int FRAME_BYTES = 8;
+    /** Longest name stored in a record, in UTF-8 bytes */
+    private static final int MAX_NAME_BYTES = 1024;
+    /** Largest record */
+    private static final int MAX_RECORD_BYTES = 8 * MAX_NAME_BYTES;
+    /** Prefix of segment file names */
+    private static final String SEGMENT_PREFIX = "journal-";
+    /** Suffix of segment file names */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** Directory holding the segments */
+    private final Path directory;
+    /** Size past which a segment is closed */
+    private final long segmentBytes;
+    /** Guards the open segment, the record buffer and the LSN counter */
+    private final Object writeLock = new Object();
+    /** Lets only one thread force the log at a time */
+    private final Object syncLock = new Object();
+    /** Buffer each record is encoded into, guarded by writeLock */
+    private final ByteBuffer record;
+    /** Checksum of each record, guarded by writeLock */
+    private final CRC32 crc;
+    /** LSN of the last record known to be on disk */
+    private final AtomicLong durableLsn;
+    /** The segment being appended to, guarded by writeLock */
+    private FileChannel channel;
+    /** Size of the segment being appended to, guarded by writeLock */
+    private long segmentSize;
+    /** LSN of the last record written, guarded by writeLock */
+    private long lastLsn;
+
+    /**
+     * Opens the journal in a directory with the default segment size, creating it if needed.
+     *
+     * @param directory the directory holding the segments
+     * @throws IOException if the journal cannot be read or created
+     */
+    public AppointmentJournal(Path directory) throws IOException
+    {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the journal in a directory, creating it if needed.
+     * A torn record at the end of the log is cut off.
+     *
+     * @param directory    the directory holding the segments
+     * @param segmentBytes the size past which a segment is closed
+     * @throws IOException if the journal cannot be read or created
+     */
+    public AppointmentJournal(Path directory, long segmentBytes) throws IOException
+    {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        record = ByteBuffer.allocate(MAX_RECORD_BYTES);
+        crc = new CRC32();
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments();
+        Path last = null;
+        long validEnd = 0;
+        for (int i = 0; i < segments.size(); i++)
+        {
+            Path segment = segments.get(i);
+            long size = Files.size(segment);
+            validEnd = scan(segment, 0, null);
+            last = segment;
+            if (validEnd < size)
+            {
+                // the log ends at the first torn record; later segments cannot follow it
+                for (int j = i + 1; j < segments.size(); j++)
+                    Files.delete(segments.get(j));
+                break;
+            }
+        }
+
+        if (last == null)
+            openSegment(lastLsn + 1);
+        else
+        {
+            // a segment left empty after older ones were deleted still fixes where the LSNs resume
+            lastLsn = Math.max(lastLsn, firstLsn(last) - 1);
+            channel = FileChannel.open(last, StandardOpenOption.WRITE);
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            segmentSize = validEnd;
+        }
+        durableLsn = new AtomicLong(lastLsn);
+    }
+
+    /**
+     * Returns the directory holding the segments.
+     *
+     * @return the journal directory
+     */
+    public Path getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Deletes the closed segments whose records all have an LSN up to the given one,
+     * once a snapshot holds their changes.
+     *
+     * @param lsn the LSN of the last record held by the snapshot
+     * @return the number of segments deleted
+     * @throws IOException if a segment cannot be deleted
+     */
+    public int deleteSegmentsThrough(long lsn) throws IOException
+    {
+        List<Path> segments = segments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size() && firstLsn(segments.get(i + 1)) - 1 <= lsn; i++)
+        {
+            Files.delete(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the LSN of the last record written.
+     *
+     * @return the last LSN, 0 if the log is empty
+     */
+    public long getLastLsn()
+    {
+        synchronized (writeLock)
+        {
+            return lastLsn;
+        }
+    }
+
+    /**
+     * Applies every record after an LSN to a scheduler, rebuilding its calendar.
+     * Must run before the journal is attached to the scheduler.
+     * Records that no longer apply, such as bookings with a provider who left the roster,
+     * are skipped.
+     *
+     * @param scheduler the scheduler to rebuild
+     * @param afterLsn  the LSN of the last record already reflected in the scheduler
+     * @return the number of records applied
+     * @throws IOException if the log cannot be read
+     */
+    public int replay(ClinicScheduler scheduler, long afterLsn) throws IOException
+    {
+        HashMap<Profile, Provider> providers = new HashMap<>();
+        for (Provider provider : scheduler.getProviders())
+            providers.put(provider.getProfile(), provider);
+
+        int[] applied = new int[1];
+        Replay replay = new Replay(scheduler, providers, applied);
+        for (Path segment : segments())
+        {
+            if (firstLsn(segment) > lastLsn)
+                break;
+            scan(segment, afterLsn, replay);
+        }
+        return applied[0];
+    }
+
+    /**
+     * Appends a booking.
+     *
+     * @param appointment the booked appointment
+     * @return the LSN of the record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public long book(Appointment appointment)
+    {
+        synchronized (writeLock)
+        {
+            begin(BOOK);
+            putAppointment(appointment);
+            putProfile(appointment.getProvider().getProfile());
+            if (appointment instanceof Imaging)
+            {
+                Imaging imaging = (Imaging) appointment;
+                record.put((byte) imaging.getRoom().ordinal());
+                record.putShort((short) imaging.getRoomNumber());
+            }
+            else
+            {
+                record.put((byte) -1);
+                record.putShort((short) 0);
+            }
+            return commit();
+        }
+    }
+
+    /**
+     * Appends a cancellation.
+     *
+     * @param appointment the canceled appointment
+     * @return the LSN of the record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public long cancel(Appointment appointment)
+    {
+        synchronized (writeLock)
+        {
+            begin(CANCEL);
+            putAppointment(appointment);
+            return commit();
+        }
+    }
+
+    /**
+     * Appends a reschedule.
+     *
+     * @param existing    the appointment before the move
+     * @param rescheduled the appointment at its new date and time slot
+     * @return the LSN of the record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public long reschedule(Appointment existing, Appointment rescheduled)
+    {
+        synchronized (writeLock)
+        {
+            begin(RESCHEDULE);
+            putAppointment(existing);
+            record.putInt(rescheduled.getDate().toPacked());
+            record.put((byte) rescheduled.getTimeSlot().getHour());
+            record.put((byte) rescheduled.getTimeSlot().getMinute());
+            record.putShort((short) (rescheduled instanceof Imaging ? ((Imaging) rescheduled).getRoomNumber() : 0));
+            return commit();
+        }
+    }
+
+    /**
+     * Appends the clearing of the whole calendar.
+     *
+     * @return the LSN of the record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public long clear()
+    {
+        synchronized (writeLock)
+        {
+            begin(CLEAR);
+            return commit();
+        }
+    }
+
+    /**
+     * Waits until every record written so far is on disk.
+     * If another thread is already forcing the log, this thread waits for it and then forces
+     * only if its records were written after that force began.
+     *
+     * @throws UncheckedIOException if the log cannot be forced
+     */
+    public void sync()
+    {
+        long target;
+        synchronized (writeLock)
+        {
+            target = lastLsn;
+        }
+        if (durableLsn.get() >= target)
+            return;
+
+        synchronized (syncLock)
+        {
+            if (durableLsn.get() >= target)
+                return;
+
+            long covered;
+            FileChannel current;
+            synchronized (writeLock)
+            {
+                covered = lastLsn;
+                current = channel;
+            }
+            try
+            {
+                current.force(false);
+            }
+            catch (ClosedChannelException e)
+            {
+                // the segment was rolled, which forced it first
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            durableLsn.accumulateAndGet(covered, Math::max);
+        }
+    }
+
+    /**
+     * Forces and closes the open segment.
+     *
+     * @throws IOException if the segment cannot be forced or closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        synchronized (writeLock)
+        {
+            channel.force(false);
+            channel.close();
+            durableLsn.accumulateAndGet(lastLsn, Math::max);
+        }
+    }
+
+    /**
+     * Starts encoding a record. The caller holds writeLock.
+     *
+     * @param type the record type
+     */
+    private void begin(byte type)
+    {
+        record.clear();
+        record.position(FRAME_BYTES);
+        record.putLong(lastLsn + 1);
+        record.put(type);
+    }
+
+    /**
+     * Frames the encoded record, writes it and rolls the segment if it is full.
+     * The caller holds writeLock.
+     *
+     * @return the LSN of the record
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    private long commit()
+    {
+        int length = record.position() - FRAME_BYTES;
+        crc.reset();
+        crc.update(record.array(), FRAME_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        try
+        {
+            while (record.hasRemaining())
+                channel.write(record);
+        }
+        catch (IOException e)
+        {
+            try
+            {
+                channel.truncate(segmentSize);
+                channel.position(segmentSize);
+            }
+            catch (IOException ignored)
+            {
+                // the torn record fails its checksum on the next start
+            }
+            throw new UncheckedIOException(e);
+        }
+        segmentSize += FRAME_BYTES + length;
+        lastLsn++;
+
+        if (segmentSize >= segmentBytes)
+        {
+            try
+            {
+                channel.force(false);
+                durableLsn.accumulateAndGet(lastLsn, Math::max);
+                channel.close();
+                openSegment(lastLsn + 1);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return lastLsn;
+    }
+
+    /**
+     * Creates a new segment and makes it the one appended to.
+     *
+     * @param firstLsn the LSN of the first record of the segment
+     * @throws IOException if the segment cannot be created
+     */
+    private void openSegment(long firstLsn) throws IOException
+    {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segmentSize = 0;
+    }
+
+    /**
+     * Encodes the date, time slot and patient of an appointment.
+     *
+     * @param appointment the appointment
+     */
+    private void putAppointment(Appointment appointment)
+    {
+        record.putInt(appointment.getDate().toPacked());
+        record.put((byte) appointment.getTimeSlot().getHour());
+        record.put((byte) appointment.getTimeSlot().getMinute());
+        putProfile(appointment.getPatient().getProfile());
+    }
+
+    /**
+     * Encodes a profile.
+     *
+     * @param profile the profile
+     * @throws IllegalArgumentException if a name is too long to store
+     */
+    private void putProfile(Profile profile)
+    {
+        putName(profile.getFirstName());
+        putName(profile.getLastName());
+        record.putInt(profile.getDateOfBirth().toPacked());
+    }
+
+    /**
+     * Encodes a name as its UTF-8 length and bytes.
+     *
+     * @param name the name
+     * @throws IllegalArgumentException if the name is too long to store
+     */
+    private void putName(String name)
+    {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES)
+            throw new IllegalArgumentException("Name is too long: " + name);
+        record.putShort((short) bytes.length);
+        record.put(bytes);
+    }
+
+    /**
+     * Lists the segments in LSN order.
+     *
+     * @return the segment files
+     * @throws IOException if the directory cannot be read
+     */
+    private List<Path> segments() throws IOException
+    {
+        List<Path> segments = new List<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+        {
+            for (Path segment : stream)
+                segments.add(segment);
+        }
+        segments.sort(Comparator.comparingLong(AppointmentJournal::firstLsn));
+        return segments;
+    }
+
+    /**
+     * Returns the LSN of the first record of a segment from its file name.
+     *
+     * @param segment the segment file
+     * @return the first LSN
+     */
+    private static long firstLsn(Path segment)
+    {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the records of a segment up to the first torn one, updating the last LSN and
+     * handing each record after an LSN to a replay.
+     *
+     * @param segment  the segment file
+     * @param afterLsn records up to this LSN are not replayed
+     * @param replay   applies records to the scheduler, or null to only check the segment
+     * @return the offset just past the last intact record
+     * @throws IOException if the segment cannot be read
+     */
+    private long scan(Path segment, long afterLsn, Replay replay) throws IOException
+    {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ))
+        {
+            long size = in.size();
+            if (size == 0)
+                return 0;
+
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 check = new CRC32();
+            int offset = 0;
+            while (size - offset >= FRAME_BYTES)
+            {
+                int length = buffer.getInt(offset);
+                int sum = buffer.getInt(offset + 4);
+                if (length <= Long.BYTES || length > MAX_RECORD_BYTES || length > size - offset - FRAME_BYTES)
+                    break;
+
+                ByteBuffer body = buffer.slice(offset + FRAME_BYTES, length);
+                check.reset();
+                check.update(body.duplicate());
+                if ((int) check.getValue() != sum)
+                    break;
+
+                long lsn = body.getLong();
+                if (replay == null)
+                    lastLsn = lsn;
+                else if (lsn > afterLsn)
+                    replay.apply(lsn, body);
+                offset += FRAME_BYTES + length;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Applies decoded records to a scheduler.
+     */
+    private static final class Replay
+    {
+        /** The scheduler being rebuilt */
+        private final ClinicScheduler scheduler;
+        /** The roster indexed by profile */
+        private final HashMap<Profile, Provider> providers;
+        /** Number of records applied, in element 0 */
+        private final int[] applied;
+
+        /**
+         * Creates a replay into a scheduler.
+         *
+         * @param scheduler the scheduler being rebuilt
+         * @param providers the roster indexed by profile
+         * @param applied   counter of records applied, in element 0
+         */
+        Replay(ClinicScheduler scheduler, HashMap<Profile, Provider> providers, int[] applied)
+        {
+            this.scheduler = scheduler;
+            this.providers = providers;
+            this.applied = applied;
+        }
+
+        /**
+         * Decodes one record and applies it.
+         *
+         * @param lsn  the LSN of the record
+         * @param body the record, positioned just past its LSN
+         */
+        void apply(long lsn, ByteBuffer body)
+        {
+            byte type = body.get();
+            try
+            {
+                boolean done;
+                if (type == CLEAR)
+                {
+                    scheduler.restoreClear(lsn);
+                    done = true;
+                }
+                else
+                {
+                    Date date = Date.ofPacked(body.getInt());
+                    Timeslot timeSlot = Timeslot.of(body.get(), body.get());
+                    Profile patient = getProfile(body);
+                    if (type == BOOK)
+                        done = book(body, date, timeSlot, patient);
+                    else if (type == CANCEL)
+                        done = scheduler.restoreCancel(date, timeSlot, patient);
+                    else if (type == RESCHEDULE)
+                        done = scheduler.restoreReschedule(date, timeSlot, patient, Date.ofPacked(body.getInt()),
+                                Timeslot.of(body.get(), body.get()), body.getShort());
+                    else
+                        done = false;
+                }
+                if (done)
+                    applied[0]++;
+            }
+            catch (IllegalArgumentException e)
+            {
+                // the time slot is no longer on the slot grid
+            }
+        }
+
+        /**
+         * Decodes the rest of a booking and restores it.
+         *
+         * @param body     the record, positioned at the provider
+         * @param date     the appointment date
+         * @param timeSlot the appointment time slot
+         * @param patient  the profile of the patient
+         * @return true if the booking was restored, false otherwise
+         */
+        private boolean book(ByteBuffer body, Date date, Timeslot timeSlot, Profile patient)
+        {
+            Provider provider = providers.get(getProfile(body));
+            byte service = body.get();
+            int room = body.getShort();
+            if (provider == null)
+                return false;
+
+            Patient canonical = scheduler.getPatients().intern(patient);
+            Appointment appointment;
+            if (service >= 0 && provider instanceof Technician)
+                appointment = new Imaging(date, timeSlot, canonical, (Technician) provider,
+                        Radiology.values()[service], room);
+            else if (service < 0 && provider instanceof Doctor)
+                appointment = new Appointment(date, timeSlot, canonical, provider);
+            else
+                return false;
+            return scheduler.restore(appointment);
+        }
+
+        /**
+         * Decodes a profile.
+         *
+         * @param body the record, positioned at the profile
+         * @return the profile
+         */
+        private static Profile getProfile(ByteBuffer body)
+        {
+            String first = getName(body);
+            String last = getName(body);
+            return new Profile(first, last, Date.ofPacked(body.getInt()));
+        }
+
+        /**
+         * Decodes a name.
+         *
+         * @param body the record, positioned at the name
+         * @return the name
+         */
+        private static String getName(ByteBuffer body)
+        {
+            byte[] bytes = new byte[body.getShort()];
+            body.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,790 @@
+package com.manager;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe appointment calendar partitioned by date.
+ * Each day is a bucket guarded by its own StampedLock. A booking, cancellation or reschedule
+ * write-locks only the days it touches, so front desks booking different days never contend.
+ * Within the lock the store checks the patient's slot and updates the report views and the
+ * day's block of report columns.
+ * A day indexes its appointments by patient id and minute of day, with patients interned
+ * in the patient registry, so the check compares two ints rather than names.
+ * Provider slots are not tracked here: the scheduler reserves them in the lock-free
+ * SlotCalendar before an appointment reaches the store.
+ * Reads take no lock: the patient index of a day is a concurrent map, and snapshots copy
+ * each day under an optimistic stamp, falling back to the read lock only if a write to the
+ * same day raced with the copy.
+ * Clearing the calendar drops every day from the map, so the map only ever holds the days
+ * booked since the last clear. A writer that locks a day a clear has dropped retries on the
+ * day's new bucket.
+ * A clear holds every day's write lock and blocks the creation of new days while it journals
+ * the clear and empties the days, so no write is journaled on either side of the clear
+ * other than the side it was applied on.
+ * When a journal is attached, each write is appended to it under the day's lock, so the
+ * journal sees the writes to a day in the order they were made. A write the journal fails
+ * to record is undone.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class AppointmentStore
+{
+    /**
+     * The outcome of a write to the store.
+     */
+    public enum Result
+    {
+        /** The write was applied */
+        BOOKED,
+        /** The patient already has an appointment at the slot */
+        PATIENT_BUSY,
+        /** The appointment to move is no longer in the store */
+        NOT_FOUND
+    }
+
+    /** The days holding appointments, in date order */
+    private final ConcurrentSkipListMap<Integer, Day> days;
+    /** Sorted report views, updated under the day's lock */
+    private final CalendarViews views;
+    /** The patient registry assigning the ids the days are indexed by */
+    private final PatientRegistry patients;
+    /** Number of appointments in the store */
+    private final AtomicInteger size;
+    /** Held to add a day to the map, and by a clear to keep days from being added */
+    private final Object creation;
+    /** Journal recording each write, or null if writes are not journaled */
+    private volatile AppointmentJournal journal;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param views    the report views kept in step with the store
+     * @param patients the patient registry of the appointments' patients
+     */
+    public AppointmentStore(CalendarViews views, PatientRegistry patients)
+    {
+        this.views = views;
+        this.patients = patients;
+        days = new ConcurrentSkipListMap<>();
+        size = new AtomicInteger();
+        creation = new Object();
+    }
+
+    /**
+     * Attaches a journal that records every later write, or detaches it.
+     *
+     * @param journal the journal, or null to stop journaling
+     */
+    public void setJournal(AppointmentJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the number of appointments in the store.
+     *
+     * @return the appointment count
+     */
+    public int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and time slot without locking.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return the appointment or null if there is none
+     */
+    public Appointment find(Date date, Timeslot timeSlot, Profile patient)
+    {
+        Day day = days.get(date.toEpochDay());
+        Patient registered = patients.find(patient);
+        if (day == null || registered == null)
+            return null;
+
+        return day.patients.get(new PatientSlot(registered.getId(), timeSlot));
+    }
+
+    /**
+     * Adds an appointment if the patient is free at its slot.
+     *
+     * @param appointment the appointment to add
+     * @return BOOKED, or the reason the appointment was not added
+     * @throws UncheckedIOException if the journal cannot record the booking
+     */
+    public Result add(Appointment appointment)
+    {
+        int epochDay = appointment.getDate().toEpochDay();
+        while (true)
+        {
+            Day day = day(epochDay);
+            long stamp = day.lock.writeLock();
+            try
+            {
+                if (day.retired)
+                    continue;
+                return add(day, appointment);
+            }
+            finally
+            {
+                day.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Adds an appointment to a day if the patient is free at its slot.
+     * The caller holds the day's write lock.
+     *
+     * @param day         the bucket of the appointment's date
+     * @param appointment the appointment to add
+     * @return BOOKED, or the reason the appointment was not added
+     * @throws UncheckedIOException if the journal cannot record the booking
+     */
+    private Result add(Day day, Appointment appointment)
+    {
+        Result result = insert(day, appointment);
+        AppointmentJournal log = journal;
+        if (result == Result.BOOKED && log != null)
+        {
+            try
+            {
+                log.book(appointment);
+            }
+            catch (RuntimeException e)
+            {
+                delete(day, appointment);
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the appointment of a patient at the given date and time slot.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return the removed appointment or null if there is none
+     * @throws UncheckedIOException if the journal cannot record the cancellation
+     */
+    public Appointment remove(Date date, Timeslot timeSlot, Profile patient)
+    {
+        int epochDay = date.toEpochDay();
+        Patient registered = patients.find(patient);
+        if (registered == null)
+            return null;
+
+        while (true)
+        {
+            Day day = days.get(epochDay);
+            if (day == null)
+                return null;
+
+            long stamp = day.lock.writeLock();
+            try
+            {
+                if (day.retired)
+                    continue;
+                Appointment existing = day.patients.get(new PatientSlot(registered.getId(), timeSlot));
+                if (existing != null)
+                {
+                    AppointmentJournal log = journal;
+                    if (log != null)
+                        log.cancel(existing);
+                    delete(day, existing);
+                }
+                return existing;
+            }
+            finally
+            {
+                day.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Replaces an appointment with its rescheduled copy in one atomic step.
+     * Both days are write-locked, in date order so that opposite moves cannot deadlock.
+     *
+     * @param existing    the appointment to move
+     * @param rescheduled the appointment at its new date and time slot
+     * @return BOOKED, or the reason the appointment was not moved
+     * @throws UncheckedIOException if the journal cannot record the reschedule
+     */
+    public Result move(Appointment existing, Appointment rescheduled)
+    {
+        int fromEpochDay = existing.getDate().toEpochDay();
+        int toEpochDay = rescheduled.getDate().toEpochDay();
+        while (true)
+        {
+            Day from = day(fromEpochDay);
+            Day to = day(toEpochDay);
+            Day first = fromEpochDay <= toEpochDay ? from : to;
+            Day second = fromEpochDay <= toEpochDay ? to : from;
+
+            long firstStamp = first.lock.writeLock();
+            long secondStamp = first == second ? 0 : second.lock.writeLock();
+            try
+            {
+                if (from.retired || to.retired)
+                    continue;
+                return move(from, to, existing, rescheduled);
+            }
+            finally
+            {
+                if (first != second)
+                    second.lock.unlockWrite(secondStamp);
+                first.lock.unlockWrite(firstStamp);
+            }
+        }
+    }
+
+    /**
+     * Replaces an appointment with its rescheduled copy. The caller holds the write locks of both days.
+     *
+     * @param from        the bucket of the existing appointment's date
+     * @param to          the bucket of the rescheduled appointment's date
+     * @param existing    the appointment to move
+     * @param rescheduled the appointment at its new date and time slot
+     * @return BOOKED, or the reason the appointment was not moved
+     * @throws UncheckedIOException if the journal cannot record the reschedule
+     */
+    private Result move(Day from, Day to, Appointment existing, Appointment rescheduled)
+    {
+        if (from.patients.get(key(existing)) != existing)
+            return Result.NOT_FOUND;
+
+        delete(from, existing);
+        Result result = insert(to, rescheduled);
+        if (result != Result.BOOKED)
+        {
+            insert(from, existing);
+            return result;
+        }
+
+        AppointmentJournal log = journal;
+        if (log != null)
+        {
+            try
+            {
+                log.reschedule(existing, rescheduled);
+            }
+            catch (RuntimeException e)
+            {
+                delete(to, rescheduled);
+                insert(from, existing);
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes every appointment, archiving them in date and time order first.
+     * The clear is journaled and the days emptied while every day is write-locked, and the
+     * history is committed once the journal holds the clearing.
+     *
+     * @param history the history to archive the appointments in, or null to discard them
+     * @throws UncheckedIOException if the journal cannot record the clearing or the history cannot be written
+     */
+    public synchronized void clear(AppointmentHistory history)
+    {
+        AppointmentJournal log = journal;
+        long lsn = empty(history, log);
+        if (log != null)
+            log.sync();
+        // committed only once the journal holds the clear, or a replay would archive the calendar again
+        if (history != null)
+            history.commit(lsn);
+    }
+
+    /**
+     * Restores a journaled clear of the calendar.
+     * Replay applies the records in LSN order, and a live clear leaves no write journaled
+     * before it that it did not remove or after it that it did, so the replayed calendar
+     * matches the one the clear left.
+     *
+     * @param history the history to archive the removed appointments in, or null to discard them
+     * @param lsn     the journal LSN of the clear
+     */
+    synchronized void restoreClear(AppointmentHistory history, long lsn)
+    {
+        empty(history, null);
+        if (history != null)
+            history.commit(lsn);
+    }
+
+    /**
+     * Removes every appointment, appending each day's appointments to a history in date and time order.
+     * New days are kept out of the map and every day is write-locked, in date order like a move,
+     * before the clear is journaled, and the emptied days are marked retired and dropped from
+     * the map before any lock is released.
+     *
+     * @param history the history to archive the removed appointments in, or null to discard them
+     * @param log     the journal to record the clear in, or null not to journal it
+     * @return the LSN of the clear, 0 if it is not journaled
+     * @throws UncheckedIOException if the journal cannot record the clearing, in which case nothing is removed
+     */
+    private long empty(AppointmentHistory history, AppointmentJournal log)
+    {
+        synchronized (creation)
+        {
+            Day[] locked = days.values().toArray(new Day[0]);
+            long[] stamps = new long[locked.length];
+            for (int i = 0; i < locked.length; i++)
+                stamps[i] = locked[i].lock.writeLock();
+            try
+            {
+                long lsn = log == null ? 0 : log.clear();
+                for (Day day : locked)
+                {
+                    List<Appointment> appointments = day.appointments();
+                    if (history != null)
+                    {
+                        Sort.sortAppointmentsByDateAndTime(appointments);
+                        for (Appointment appointment : appointments)
+                            history.append(appointment, patients.intern(appointment.getPatient()));
+                    }
+                    // emptied at once rather than searched row by row
+                    day.columns.clear();
+                    for (Appointment appointment : appointments)
+                        delete(day, appointment);
+                    day.retired = true;
+                }
+                days.clear();
+                return lsn;
+            }
+            finally
+            {
+                for (int i = 0; i < locked.length; i++)
+                    locked[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies the appointments into a list ordered by date.
+     * Each day is copied as of a single moment: the copy is made under an optimistic stamp
+     * and redone under the read lock if a write to the day intervened.
+     *
+     * @return a snapshot of the appointments
+     */
+    public List<Appointment> toList()
+    {
+        List<Appointment> snapshot = new List<>(size());
+        for (Day day : days.values())
+        {
+            long stamp = day.lock.tryOptimisticRead();
+            List<Appointment> copy = day.appointments();
+            if (!day.lock.validate(stamp))
+            {
+                stamp = day.lock.readLock();
+                try
+                {
+                    copy = day.appointments();
+                }
+                finally
+                {
+                    day.lock.unlockRead(stamp);
+                }
+            }
+            snapshot.addAll(copy);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Totals the rate of every appointment by provider, scanning each day's report columns
+     * under its read lock.
+     *
+     * @param rates the rate per visit of each provider, indexed by provider id
+     * @return the total of each provider, indexed by provider id
+     */
+    public long[] sumByProvider(int[] rates)
+    {
+        long[] totals = new long[rates.length];
+        for (Day day : days.values())
+        {
+            long stamp = day.lock.readLock();
+            try
+            {
+                day.columns.sumByProvider(rates, totals);
+            }
+            finally
+            {
+                day.lock.unlockRead(stamp);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Totals the rate of every appointment and counts the appointments by patient, scanning
+     * each day's report columns under its read lock.
+     * Patients with ids beyond the arrays, registered after the caller sized them, are left out.
+     *
+     * @param rates  the rate per visit of each provider, indexed by provider id
+     * @param totals receives the total of each patient, indexed by patient id
+     * @param visits receives the number of appointments of each patient, indexed by patient id
+     */
+    public void sumByPatient(int[] rates, long[] totals, int[] visits)
+    {
+        for (Day day : days.values())
+        {
+            long stamp = day.lock.readLock();
+            try
+            {
+                day.columns.sumByPatient(rates, totals, visits);
+            }
+            finally
+            {
+                day.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Copies every appointment as of a single moment, for a snapshot of the calendar.
+     * Every day is read-locked at once, in date order like a move, and the journal's last LSN
+     * is read under those locks, so the copy holds exactly the journaled writes up to that LSN.
+     * If a day was added while the locks were being taken the copy is retried.
+     * Must not run at the same time as {@link #clear(AppointmentHistory)}.
+     *
+     * @param copy the list receiving the appointments, ordered by date
+     * @return the LSN of the last journaled write in the copy, 0 if no journal is attached
+     */
+    public synchronized long snapshot(List<Appointment> copy)
+    {
+        while (true)
+        {
+            Day[] locked = days.values().toArray(new Day[0]);
+            long[] stamps = new long[locked.length];
+            for (int i = 0; i < locked.length; i++)
+                stamps[i] = locked[i].lock.readLock();
+            try
+            {
+                AppointmentJournal log = journal;
+                long lsn = log == null ? 0 : log.getLastLsn();
+                if (days.size() == locked.length)
+                {
+                    copy.clear();
+                    for (Day day : locked)
+                        copy.addAll(day.appointments());
+                    return lsn;
+                }
+            }
+            finally
+            {
+                for (int i = 0; i < locked.length; i++)
+                    locked[i].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket of a day, creating it if needed.
+     * Creating a day waits for a clear in progress to finish.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @return the bucket
+     */
+    private Day day(int epochDay)
+    {
+        Day day = days.get(epochDay);
+        if (day == null)
+        {
+            synchronized (creation)
+            {
+                day = days.get(epochDay);
+                if (day == null)
+                {
+                    day = new Day(new AppointmentColumns());
+                    days.put(epochDay, day);
+                }
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Adds an appointment to a day. The caller holds the day's write lock.
+     *
+     * @param day         the bucket of the appointment's date
+     * @param appointment the appointment to add
+     * @return BOOKED, or the reason the appointment was not added
+     */
+    private Result insert(Day day, Appointment appointment)
+    {
+        int patientId = patients.intern(appointment.getPatient()).getId();
+        PatientSlot key = new PatientSlot(patientId, appointment.getTimeSlot());
+        if (day.patients.containsKey(key))
+            return Result.PATIENT_BUSY;
+
+        day.patients.put(key, appointment);
+        views.add(appointment);
+        day.columns.add(appointment, patientId);
+        size.incrementAndGet();
+        return Result.BOOKED;
+    }
+
+    /**
+     * Removes an appointment from a day. The caller holds the day's write lock.
+     *
+     * @param day         the bucket of the appointment's date
+     * @param appointment the appointment to remove
+     */
+    private void delete(Day day, Appointment appointment)
+    {
+        int patientId = patients.intern(appointment.getPatient()).getId();
+        day.patients.remove(new PatientSlot(patientId, appointment.getTimeSlot()));
+        views.remove(appointment);
+        day.columns.remove(appointment, patientId);
+        size.decrementAndGet();
+    }
+
+    /**
+     * Returns the key of an appointment in its day's index.
+     *
+     * @param appointment the appointment
+     * @return the key of the appointment's patient and time slot
+     */
+    private PatientSlot key(Appointment appointment)
+    {
+        return new PatientSlot(patients.intern(appointment.getPatient()).getId(), appointment.getTimeSlot());
+    }
+
+    /**
+     * The appointments of one day and the lock guarding writes to them.
+     */
+    private static final class Day
+    {
+        /** Guards writes to the day's appointments and calendar bitmaps */
+        private final StampedLock lock = new StampedLock();
+        /** The day's appointments indexed by patient and time slot */
+        private final ConcurrentHashMap<PatientSlot, Appointment> patients = new ConcurrentHashMap<>();
+        /** The day's appointments as report columns, written under the lock */
+        private final AppointmentColumns columns;
+        /** Whether a clear has dropped the day from the map, written under the lock */
+        private boolean retired;
+
+        /**
+         * Creates an empty day.
+         *
+         * @param columns the day's empty report columns
+         */
+        Day(AppointmentColumns columns)
+        {
+            this.columns = columns;
+        }
+
+        /**
+         * Copies the day's appointments into a list.
+         *
+         * @return the appointments
+         */
+        List<Appointment> appointments()
+        {
+            List<Appointment> copy = new List<>(patients.size());
+            for (Appointment appointment : patients.values())
+                copy.add(appointment);
+            return copy;
+        }
+    }
+
+    /**
+     * Hash key identifying a patient's appointment within a day by time slot.
+     * A patient can hold at most one appointment per key.
+     */
+    private static final class PatientSlot
+    {
+        /** Minutes in an hour */
+        private static final int MINUTES_PER_HOUR = 60;
+
+        /** Registry id of the patient */
+        private final int patient;
+        /** Start of the time slot in minutes since midnight */
+        private final int minuteOfDay;
+
+        /**
+         * Creates a key for the given patient and time slot.
+         *
+         * @param patient  the registry id of the patient
+         * @param timeSlot the appointment time slot
+         */
+        PatientSlot(int patient, Timeslot timeSlot)
+        {
+            this.patient = patient;
+            this.minuteOfDay = timeSlot.getHour() * MINUTES_PER_HOUR + timeSlot.getMinute();
+        }
+
+        /**
+         * Checks if this key is equal to another object.
+         *
+         * @param obj the object to compare to
+         * @return true if the object is a key for the same patient and time slot
+         */
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof PatientSlot))
+                return false;
+
+            PatientSlot other = (PatientSlot) obj;
+            return patient == other.patient && minuteOfDay == other.minuteOfDay;
+        }
+
+        /**
+         * Returns the hash code of the key.
+         *
+         * @return the hash code based on the patient and time slot
+         */
+        @Override
+        public int hashCode()
+        {
+            return 31 * patient + minuteOfDay;
+        }
+    }
+
+    /**
+     * Testbed main() stress-testing concurrent booking.
+     * Several threads race to book, cancel and reschedule with the same doctors and technicians over
+     * the same days and slots, each with its own patients. The calendar is then checked for provider
+     * slots and imaging rooms booked twice and for bookings that were lost or counted twice.
+     *
+     * @param args the command line arguments
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        final int threads = 8;
+        final int attempts = 20000;
+        final int doctors = 10;
+        final int technicians = 6;
+        final int days = 5;
+        final int slots = SlotGrid.current().size();
+
+        ClinicScheduler scheduler = new ClinicScheduler();
+        Radiology[] services = { Radiology.XRAY, Radiology.ULTRASOUND, Radiology.CATSCAN };
+        for (int i = 0; i < doctors; i++)
+            scheduler.addProvider(new Doctor(new Profile("DOC" + i, "STRESS", new Date(1970, 1, 1 + i)),
+                    new Location("EDISON"), Specialty.FAMILY, "N" + i));
+        for (int i = 0; i < technicians; i++)
+            scheduler.addProvider(new Technician(new Profile("TECH" + i, "STRESS", new Date(1980, 1, 1 + i)),
+                    new Location("EDISON"), 100 + i, services));
+        for (Radiology service : services)
+            scheduler.setImagingRooms(new Location("EDISON"), service, technicians);
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Date[] dates = new Date[days];
+        for (int i = 0; i < days; i++)
+        {
+            LocalDate local = tomorrow.plusDays(i);
+            dates[i] = new Date(local.getYear(), local.getMonthValue(), local.getDayOfMonth());
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger canceled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++)
+        {
+            final int thread = t;
+            workers[t] = new Thread(() ->
+            {
+                Random random = new Random(thread);
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                for (int i = 0; i < attempts; i++)
+                {
+                    Date date = dates[random.nextInt(days)];
+                    Timeslot timeSlot = Timeslot.of(1 + random.nextInt(slots));
+                    Profile patient = new Profile("P" + thread + "_" + i, "STRESS", new Date(1990, 1, 1));
+                    Appointment appointment;
+                    try
+                    {
+                        if (random.nextInt(4) == 0)
+                            appointment = scheduler.bookImagingAppointment(date, timeSlot, patient,
+                                    services[random.nextInt(3)]);
+                        else
+                            appointment = scheduler.bookDoctorAppointment(date, timeSlot, patient,
+                                    "N" + random.nextInt(doctors));
+                        booked.incrementAndGet();
+                    }
+                    catch (IllegalArgumentException e)
+                    {
+                        continue; // the slot was taken by another desk
+                    }
+
+                    int action = random.nextInt(8);
+                    try
+                    {
+                        if (action == 0)
+                        {
+                            scheduler.cancelAppointment(date, timeSlot, patient);
+                            canceled.incrementAndGet();
+                        }
+                        else if (action == 1)
+                            scheduler.rescheduleAppointment(date, timeSlot, dates[random.nextInt(days)],
+                                    Timeslot.of(1 + random.nextInt(slots)), appointment.getPatient().getProfile());
+                    }
+                    catch (IllegalArgumentException e)
+                    {
+                        // the new slot was taken by another desk
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers)
+            worker.join();
+
+        HashSet<String> providerSlots = new HashSet<>();
+        int doubleBooked = 0;
+        HashSet<String> rooms = new HashSet<>();
+        int doubleBookedRooms = 0;
+        List<Appointment> appointments = scheduler.getAppointments();
+        for (Appointment appointment : appointments)
+        {
+            String key = appointment.getProvider().getId() + "@" + appointment.getDate() + "#"
+                    + appointment.getTimeSlot().getSlotIndex();
+            if (!providerSlots.add(key))
+                doubleBooked++;
+            if (appointment instanceof Imaging)
+            {
+                Imaging imaging = (Imaging) appointment;
+                String room = imaging.getRoom() + "#" + imaging.getRoomNumber() + "@" + appointment.getDate() + "#"
+                        + appointment.getTimeSlot().getSlotIndex();
+                if (!rooms.add(room))
+                    doubleBookedRooms++;
+            }
+        }
+        System.out.println("Booked " + booked.get() + ", canceled " + canceled.get());
+        System.out.println("Appointments in store: " + appointments.size()); // Expected: booked - canceled
+        System.out.println("Capacity: " + (doctors + technicians) * days * slots); // Expected: the store is full
+        System.out.println("Provider slots booked twice: " + doubleBooked); // Expected: 0
+        System.out.println("Imaging rooms booked twice: " + doubleBookedRooms); // Expected: 0
+    }
+}
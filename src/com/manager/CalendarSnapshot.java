@@ -0,0 +1,337 @@
+package com.manager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of the appointment calendar, taken so that a restart replays only the
+ * journal records written after it.
+ * A snapshot file holds
+ * <pre>
+ * header       int magic  long lsn  int providers  int patients  int appointments
+ * providers    profile per provider
+ * patients     profile per patient
+ * appointments 16 bytes each: int epochDay  short minuteOfDay  byte service  byte room
+ *                             int patientId  int providerId
+ * trailer      int crc32 of everything before it
+ * </pre>
+ * where a profile is the UTF-8 length and bytes of the first and last names followed by the
+ * packed date of birth, and patient and provider ids index the two profile tables. The service
+ * is -1 for an office visit and the Radiology ordinal for imaging.
+ * A snapshot is written to a temporary file and renamed into place, so a crash leaves the
+ * previous snapshot intact. The previous snapshot is kept as well, so a damaged snapshot
+ * falls back to the one before it and the journal records after that. It is loaded through a read-only memory map, and the fixed-width
+ * appointment records are read straight from the map.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public final class CalendarSnapshot
+{
+    /** Identifies a snapshot file and its format version */
+    private static final int MAGIC = 0x434D5331;
+    /** Bytes of the header */
+    private static final int HEADER_BYTES = 24;
+    /** Bytes of each appointment record */
+    private static final int RECORD_BYTES = 16;
+    /** Prefix of snapshot file names */
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    /** Suffix of snapshot file names */
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    /** Number of snapshots kept in a directory */
+    private static final int KEPT_SNAPSHOTS = 2;
+    /** Minutes in an hour */
+    private static final int MINUTES_PER_HOUR = 60;
+
+    /**
+     * Utility class, not instantiated.
+     */
+    private CalendarSnapshot()
+    {
+    }
+
+    /**
+     * Writes a snapshot of the calendar into a directory and deletes all but the previous snapshot.
+     *
+     * @param directory    the directory holding the snapshots
+     * @param lsn          the LSN of the last journal record reflected in the appointments
+     * @param appointments the appointments, ordered by date
+     * @return the snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path write(Path directory, long lsn, List<Appointment> appointments) throws IOException
+    {
+        HashMap<Profile, Integer> providerIds = new HashMap<>();
+        HashMap<Profile, Integer> patientIds = new HashMap<>();
+        List<Profile> providers = new List<>();
+        List<Profile> patients = new List<>();
+        int tableBytes = 0;
+        for (Appointment appointment : appointments)
+        {
+            Profile provider = appointment.getProvider().getProfile();
+            if (providerIds.putIfAbsent(provider, providers.size()) == null)
+            {
+                providers.add(provider);
+                tableBytes += profileBytes(provider);
+            }
+            Profile patient = appointment.getPatient().getProfile();
+            if (patientIds.putIfAbsent(patient, patients.size()) == null)
+            {
+                patients.add(patient);
+                tableBytes += profileBytes(patient);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + tableBytes
+                + appointments.size() * RECORD_BYTES + Integer.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putLong(lsn);
+        buffer.putInt(providers.size());
+        buffer.putInt(patients.size());
+        buffer.putInt(appointments.size());
+        for (Profile provider : providers)
+            putProfile(buffer, provider);
+        for (Profile patient : patients)
+            putProfile(buffer, patient);
+
+        for (Appointment appointment : appointments)
+        {
+            Timeslot timeSlot = appointment.getTimeSlot();
+            buffer.putInt(appointment.getDate().toEpochDay());
+            buffer.putShort((short) (timeSlot.getHour() * MINUTES_PER_HOUR + timeSlot.getMinute()));
+            if (appointment instanceof Imaging)
+            {
+                Imaging imaging = (Imaging) appointment;
+                buffer.put((byte) imaging.getRoom().ordinal());
+                buffer.put((byte) imaging.getRoomNumber());
+            }
+            else
+            {
+                buffer.put((byte) -1);
+                buffer.put((byte) 0);
+            }
+            buffer.putInt(patientIds.get(appointment.getPatient().getProfile()));
+            buffer.putInt(providerIds.get(appointment.getProvider().getProfile()));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path snapshot = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(snapshot.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while (buffer.hasRemaining())
+                out.write(buffer);
+            out.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> snapshots = snapshots(directory);
+        for (int i = 0; i < snapshots.size() - KEPT_SNAPSHOTS; i++)
+            Files.delete(snapshots.get(i));
+        return snapshot;
+    }
+
+    /**
+     * Restores the newest intact snapshot in a directory into a scheduler.
+     * Appointments whose provider left the roster or whose time slot is no longer on the
+     * slot grid are skipped.
+     *
+     * @param directory the directory holding the snapshots
+     * @param scheduler the scheduler to restore into, with its roster loaded
+     * @return the LSN of the last journal record reflected in the snapshot, 0 if there is none
+     * @throws IOException if a snapshot cannot be read
+     */
+    public static long load(Path directory, ClinicScheduler scheduler) throws IOException
+    {
+        if (!Files.isDirectory(directory))
+            return 0;
+
+        List<Path> snapshots = snapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--)
+        {
+            try (FileChannel in = FileChannel.open(snapshots.get(i), StandardOpenOption.READ))
+            {
+                MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (isIntact(buffer))
+                    return restore(buffer, scheduler);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks the magic number and checksum of a snapshot.
+     *
+     * @param buffer the mapped snapshot
+     * @return true if the snapshot is intact, false otherwise
+     */
+    private static boolean isIntact(ByteBuffer buffer)
+    {
+        int size = buffer.limit();
+        if (size < HEADER_BYTES + Integer.BYTES || buffer.getInt(0) != MAGIC)
+            return false;
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - Integer.BYTES));
+        return (int) crc.getValue() == buffer.getInt(size - Integer.BYTES);
+    }
+
+    /**
+     * Restores the appointments of an intact snapshot.
+     *
+     * @param buffer    the mapped snapshot
+     * @param scheduler the scheduler to restore into
+     * @return the LSN of the snapshot
+     */
+    private static long restore(ByteBuffer buffer, ClinicScheduler scheduler)
+    {
+        buffer.position(Integer.BYTES);
+        long lsn = buffer.getLong();
+        Provider[] providers = new Provider[buffer.getInt()];
+        Patient[] patients = new Patient[buffer.getInt()];
+        int appointments = buffer.getInt();
+
+        HashMap<Profile, Provider> roster = new HashMap<>();
+        for (Provider provider : scheduler.getProviders())
+            roster.put(provider.getProfile(), provider);
+        for (int i = 0; i < providers.length; i++)
+            providers[i] = roster.get(getProfile(buffer));
+        for (int i = 0; i < patients.length; i++)
+            patients[i] = scheduler.getPatients().intern(getProfile(buffer));
+
+        Radiology[] services = Radiology.values();
+        Date date = null;
+        for (int i = 0, offset = buffer.position(); i < appointments; i++, offset += RECORD_BYTES)
+        {
+            int epochDay = buffer.getInt(offset);
+            int minuteOfDay = buffer.getShort(offset + 4);
+            byte service = buffer.get(offset + 6);
+            int room = buffer.get(offset + 7) & 0xFF;
+            Patient patient = patients[buffer.getInt(offset + 8)];
+            Provider provider = providers[buffer.getInt(offset + 12)];
+            if (provider == null)
+                continue;
+
+            // records are in date order, so one Date serves each day
+            if (date == null || date.toEpochDay() != epochDay)
+                date = Date.ofEpochDay(epochDay);
+            Timeslot timeSlot;
+            try
+            {
+                timeSlot = Timeslot.of(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR);
+            }
+            catch (IllegalArgumentException e)
+            {
+                continue; // the time slot is no longer on the slot grid
+            }
+
+            if (service >= 0 && provider instanceof Technician)
+                scheduler.restore(new Imaging(date, timeSlot, patient, (Technician) provider, services[service], room));
+            else if (service < 0 && provider instanceof Doctor)
+                scheduler.restore(new Appointment(date, timeSlot, patient, provider));
+        }
+        return lsn;
+    }
+
+    /**
+     * Returns the number of bytes a profile takes in a snapshot.
+     *
+     * @param profile the profile
+     * @return the encoded size
+     */
+    private static int profileBytes(Profile profile)
+    {
+        return 2 * Short.BYTES + Integer.BYTES
+                + profile.getFirstName().getBytes(StandardCharsets.UTF_8).length
+                + profile.getLastName().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Encodes a profile.
+     *
+     * @param buffer  the buffer to write to
+     * @param profile the profile
+     */
+    private static void putProfile(ByteBuffer buffer, Profile profile)
+    {
+        byte[] first = profile.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] last = profile.getLastName().getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) first.length).put(first);
+        buffer.putShort((short) last.length).put(last);
+        buffer.putInt(profile.getDateOfBirth().toPacked());
+    }
+
+    /**
+     * Decodes a profile.
+     *
+     * @param buffer the buffer, positioned at the profile
+     * @return the profile
+     */
+    private static Profile getProfile(ByteBuffer buffer)
+    {
+        String first = getName(buffer);
+        String last = getName(buffer);
+        return new Profile(first, last, Date.ofPacked(buffer.getInt()));
+    }
+
+    /**
+     * Decodes a name.
+     *
+     * @param buffer the buffer, positioned at the name
+     * @return the name
+     */
+    private static String getName(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists the snapshots in a directory, oldest first.
+     *
+     * @param directory the directory holding the snapshots
+     * @return the snapshot files
+     * @throws IOException if the directory cannot be read
+     */
+    private static List<Path> snapshots(Path directory) throws IOException
+    {
+        List<Path> snapshots = new List<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX))
+        {
+            for (Path snapshot : stream)
+                snapshots.add(snapshot);
+        }
+        snapshots.sort(Comparator.comparingLong(CalendarSnapshot::lsn));
+        return snapshots;
+    }
+
+    /**
+     * Returns the LSN of a snapshot from its file name.
+     *
+     * @param snapshot the snapshot file
+     * @return the LSN
+     */
+    private static long lsn(Path snapshot)
+    {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+}
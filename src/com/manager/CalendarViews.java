@@ -0,0 +1,96 @@
+package com.manager;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Incrementally maintained sorted views of the appointment calendar.
+ * Each report order is kept in its own skip list that is updated on every booking and
+ * cancellation, so printing a report is an in-order walk with no sorting, and the reports
+ * no longer reorder a shared list for each other.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class CalendarViews
+{
+    /** Appointments ordered by date, time slot and provider */
+    private ConcurrentSkipListSet<Appointment> byDateAndTime;
+    /** Appointments ordered by patient */
+    private ConcurrentSkipListSet<Appointment> byPatient;
+    /** Appointments ordered by county, date and time slot */
+    private ConcurrentSkipListSet<Appointment> byLocation;
+
+    /**
+     * Creates empty views.
+     */
+    public CalendarViews()
+    {
+        byDateAndTime = new ConcurrentSkipListSet<>(Sort.CALENDAR_DATE_TIME_ORDER);
+        byPatient = new ConcurrentSkipListSet<>(Sort.CALENDAR_PATIENT_ORDER);
+        byLocation = new ConcurrentSkipListSet<>(Sort.CALENDAR_LOCATION_ORDER);
+    }
+
+    /**
+     * Adds an appointment to every view in O(log n).
+     *
+     * @param appointment the appointment to add
+     */
+    public void add(Appointment appointment)
+    {
+        byDateAndTime.add(appointment);
+        byPatient.add(appointment);
+        byLocation.add(appointment);
+    }
+
+    /**
+     * Removes an appointment from every view in O(log n).
+     *
+     * @param appointment the appointment to remove
+     */
+    public void remove(Appointment appointment)
+    {
+        byDateAndTime.remove(appointment);
+        byPatient.remove(appointment);
+        byLocation.remove(appointment);
+    }
+
+    /**
+     * Removes every appointment from the views.
+     */
+    public void clear()
+    {
+        byDateAndTime.clear();
+        byPatient.clear();
+        byLocation.clear();
+    }
+
+    /**
+     * Returns the appointments ordered by date, time slot and provider.
+     *
+     * @return the appointments in date/time/provider order
+     */
+    public Iterable<Appointment> byDateAndTime()
+    {
+        return byDateAndTime;
+    }
+
+    /**
+     * Returns the appointments ordered by patient.
+     *
+     * @return the appointments in patient order
+     */
+    public Iterable<Appointment> byPatient()
+    {
+        return byPatient;
+    }
+
+    /**
+     * Returns the appointments ordered by county, date and time slot.
+     *
+     * @return the appointments in county/date/time order
+     */
+    public Iterable<Appointment> byLocation()
+    {
+        return byLocation;
+    }
+}
@@ -3,10 +3,10 @@ package com.manager;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.collections.FXCollections;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
-import java.util.StringTokenizer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 
@@ -17,16 +17,16 @@ import java.time.LocalDate;
  * @author Surya Bhardwaj
  */
 public class ClinicManagerController {
-    /** List of providers */
-    private List<Provider> providers;
-    /** List of appointments */
-    private List<Appointment> appointments;
-    /** RotationList of technicians */
-    private List<Technician> rotationList;
-    /** Current Index of rotationList */
-    private int currentIndex;
+    /** Scheduling engine holding the providers and appointments */
+    private ClinicScheduler scheduler;
     /** Decimal Format */
     private static final DecimalFormat df = new DecimalFormat("0.00");
+    /** System property naming the appointment journal directory */
+    private static final String JOURNAL_PROPERTY = "clinic.journal";
+    /** Journal directory used when the property is not set */
+    private static final String DEFAULT_JOURNAL = "journal";
+    /** System property naming the file to map the appointment history from, kept in memory if not set */
+    private static final String HISTORY_PROPERTY = "clinic.history";
 
     //Doctor tab--------------------------------------------------------------------
     /**First Name in doctor tab */
@@ -143,22 +143,24 @@ public class ClinicManagerController {
     @FXML
     private TabPane mainTabPane;
 
+
     /**
      * Initializes the controller class.
-     * Sets up providers, lists, sets datePickers to not editable, initializes imaging types and loads providers.
+     * Sets up the scheduler, sets datePickers to not editable, initializes imaging types and loads providers.
      */
     @FXML
     public void initialize() {
-        providers = new List<>();
-        appointments = new List<>();
-        currentIndex = 0;
+        scheduler = new ClinicScheduler();
 
         // Initialize time slots
-        String[] timeSlots = {
-                "9:00 AM (1)", "9:30 AM (2)", "10:00 AM (3)", "10:30 AM (4)",
-                "11:00 AM (5)", "11:30 AM (6)", "2:00 PM (7)", "2:30 PM (8)",
-                "3:00 PM (9)", "3:30 PM (10)", "4:00 PM (11)", "4:30 PM (12)"
-        };
+        SlotGrid grid = SlotGrid.current();
+        if (SlotGrid.getPropertyError() != null) {
+            updateOutput(SlotGrid.getPropertyError(), providerInfoOutput);
+        }
+        String[] timeSlots = new String[grid.size()];
+        for (int i = 1; i <= timeSlots.length; i++) {
+            timeSlots[i - 1] = grid.slot(i) + " (" + i + ")";
+        }
 
         doctorTimeSlot.setItems(FXCollections.observableArrayList(timeSlots));
         techTimeSlot.setItems(FXCollections.observableArrayList(timeSlots));
@@ -183,6 +185,8 @@ public class ClinicManagerController {
 
         loadProviders();
         displayProviderInfo();
+        openHistory();
+        openJournal();
     }
 
     /**
@@ -192,20 +196,16 @@ public class ClinicManagerController {
         providerListArea.clear();
         providerListArea.appendText("Providers loaded successfully.\n");
 
+        List<Provider> providers = scheduler.getProviders();
         Sort.sortProvidersByProfile(providers);
+        StringBuilder providerList = new StringBuilder();
         for (Provider provider : providers) {
-            providerListArea.appendText(provider.toString() + "\n");
+            providerList.append(provider).append("\n");
         }
+        providerListArea.appendText(providerList.toString());
 
         providerListArea.appendText("\nRotation list for the technicians:\n");
-        List<Technician> technicians = new List<>();
-        for (Provider provider : providers) {
-            if (provider instanceof Technician) {
-                technicians.add((Technician) provider);
-            }
-        }
-
-        Sort.sortTechniciansByLocationAndRate(technicians);
+        List<Technician> technicians = scheduler.getRotationList();
         StringBuilder rotationList = new StringBuilder();
         for (int i = 0; i < technicians.size(); i++) {
             Technician tech = technicians.get(i);
@@ -227,42 +227,47 @@ public class ClinicManagerController {
      * Loads providers from the providers.txt file.
      */
     private void loadProviders(){
-        File file = new File("src/com/manager/providers.txt");
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                StringTokenizer tokenizer = new StringTokenizer(line);
-
-                if (tokenizer.countTokens() < 5) {
-                    updateOutput("Invalid line format, skipping: " + line, providerInfoOutput);
-                    continue;
-                }
-
-                String type = tokenizer.nextToken();
-                String firstName = tokenizer.nextToken();
-                String lastName = tokenizer.nextToken();
-                String dob = tokenizer.nextToken();
-                Date dobDate = new Date(dob);
-                String location = tokenizer.nextToken();
-                Location loc = new Location(location);
-
-                if (type.equals("D")) {
-                    String specialty = tokenizer.nextToken();
-                    String npi = tokenizer.nextToken();
-                    providers.add(new Doctor(new Profile(firstName, lastName, dobDate), loc,
-                            Specialty.valueOf(specialty.toUpperCase()), npi));
-                } else if (type.equals("T")) {
-                    int rate = Integer.parseInt(tokenizer.nextToken());
-                    Radiology[] defaultServices = { Radiology.XRAY, Radiology.ULTRASOUND, Radiology.CATSCAN };
-                    providers
-                            .add(new Technician(new Profile(firstName, lastName, dobDate), loc, rate, defaultServices));
-                }
+        try {
+            List<String> errors = new RosterLoader(scheduler).load(Paths.get("src/com/manager/providers.txt"));
+            for (String error : errors) {
+                updateOutput(error, providerInfoOutput);
             }
             updateOutput("Providers loaded successfully.", providerInfoOutput);
             displayProviderInfo();
-            initializeTechnicianList();
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             updateOutput("Providers file not found.", providerInfoOutput);
+        } catch (IOException e) {
+            updateOutput("Providers file could not be read: " + e.getMessage(), providerInfoOutput);
+        }
+    }
+
+    /**
+     * Maps the appointment history from the file named by the clinic.history system property, if it is set.
+     */
+    private void openHistory() {
+        String file = System.getProperty(HISTORY_PROPERTY);
+        if (file == null)
+            return;
+        try {
+            scheduler.openHistory(Paths.get(file));
+        } catch (IOException e) {
+            updateOutput("Appointment history file could not be opened, history is kept in memory: " + e.getMessage(),
+                    providerInfoOutput);
+        }
+    }
+
+    /**
+     * Opens the appointment journal and restores the appointments it holds.
+     * The journal directory is read from the clinic.journal system property.
+     */
+    private void openJournal() {
+        try {
+            scheduler.openJournal(Paths.get(System.getProperty(JOURNAL_PROPERTY, DEFAULT_JOURNAL)));
+            updateOutput("Restored " + scheduler.getAppointmentCount() + " appointment(s) from the journal.",
+                    providerInfoOutput);
+        } catch (IOException e) {
+            updateOutput("Appointment journal could not be opened, changes will not be saved: " + e.getMessage(),
+                    providerInfoOutput);
         }
     }
 
@@ -286,133 +291,64 @@ public class ClinicManagerController {
      */
     private boolean isValidName(String name) {
         return name != null && name.matches("[a-zA-Z]+");
-    }    
+    }
+
+    /**
+     * Converts the value of a DatePicker to a Date.
+     * 
+     * @param localDate the selected date
+     * @return the corresponding Date
+     */
+    private Date toDate(LocalDate localDate) {
+        return new Date(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+    }
 
     /**
      * Schedules a new doctor's appointment.
-     * Gets the needed information from the FXML-injected fields and creates the appointment.
+     * Gets the needed information from the FXML-injected fields and passes it to the scheduler.
      */
     @FXML
     private void handleDoctorBooking() {
-    // First check if any fields are empty
-    if (doctorFirstName.getText().isEmpty() ||
-            doctorLastName.getText().isEmpty() ||
-            doctorDOB.getValue() == null ||
-            doctorAppointmentDate.getValue() == null ||
-            doctorTimeSlot.getValue() == null ||
-            doctorNPI.getText().isEmpty()) {
-        updateOutput("Missing data tokens.", doctorAppointmentOutput);
-        return;
-    }
-
-    // Then validate names contain only letters
-    if (!isValidName(doctorFirstName.getText())) {
-        updateOutput("First name must contain only letters", doctorAppointmentOutput);
-        return;
-    }
-    if (!isValidName(doctorLastName.getText())) {
-        updateOutput("Last name must contain only letters", doctorAppointmentOutput);
-        return;
-    }
-
-    try {
-        LocalDate appointmentLocalDate = doctorAppointmentDate.getValue();
-        if (appointmentLocalDate == null) {
-            updateOutput("Invalid appointment date format. Use MM/dd/yyyy", doctorAppointmentOutput);
-            return;
-        }
-
-        LocalDate dobLocalDate = doctorDOB.getValue();
-        if (dobLocalDate == null) {
-            updateOutput("Invalid birth date format. Use MM/dd/yyyy", doctorAppointmentOutput);
-            return;
-        }
-
-        Date appointmentDate = new Date(
-                appointmentLocalDate.getYear(),
-                appointmentLocalDate.getMonthValue(),
-                appointmentLocalDate.getDayOfMonth());
-
-        if(!appointmentDate.isValid()) {
-            updateOutput("Invalid appointment date", doctorAppointmentOutput);
-            return;
-        }
-        if(appointmentDate.isSixMonthsOrMoreInFuture()) {
-            updateOutput("Appointment cannot be six months in the future", doctorAppointmentOutput);
-            return;
-        }
-        if(appointmentDate.isBeforeToday()) {
-            updateOutput("Appointment cannot be in the past", doctorAppointmentOutput);
+        // First check if any fields are empty
+        if (doctorFirstName.getText().isEmpty() ||
+                doctorLastName.getText().isEmpty() ||
+                doctorDOB.getValue() == null ||
+                doctorAppointmentDate.getValue() == null ||
+                doctorTimeSlot.getValue() == null ||
+                doctorNPI.getText().isEmpty()) {
+            updateOutput("Missing data tokens.", doctorAppointmentOutput);
             return;
         }
 
-        Date dob = new Date(
-                dobLocalDate.getYear(),
-                dobLocalDate.getMonthValue(),
-                dobLocalDate.getDayOfMonth());
-
-        if(!dob.isValid()) {
-            updateOutput("Invalid birth date", doctorAppointmentOutput);
-            return;
-        }
-        if(dob.isAfterToday()) {
-            updateOutput("Patient DOB cannot be in the future", doctorAppointmentOutput);
+        // Then validate names contain only letters
+        if (!isValidName(doctorFirstName.getText())) {
+            updateOutput("First name must contain only letters", doctorAppointmentOutput);
             return;
         }
-
-        Timeslot timeSlot = new Timeslot(getTimeSlotIndex(doctorTimeSlot.getValue()));
-        if (!timeSlot.isValid()) {
-            updateOutput("Invalid time slot selected", doctorAppointmentOutput);
+        if (!isValidName(doctorLastName.getText())) {
+            updateOutput("Last name must contain only letters", doctorAppointmentOutput);
             return;
         }
 
-        boolean isAvailable = true;
-        for (Appointment a : appointments) {
-            if(a.getDate().equals(appointmentDate) &&
-                    a.getTimeSlot().equals(timeSlot) &&
-                    a.getPatient().getProfile().getFirstName().equals(doctorFirstName.getText()) &&
-                    a.getPatient().getProfile().getLastName().equals(doctorLastName.getText()) &&
-                    a.getPatient().getProfile().getDateOfBirth().equals(dob)) {
-                isAvailable = false;
-                break;
-            }
-        }
-
-        if(!isAvailable) { 
-            updateOutput("Patient already has an appointment at the selected time slot and date", doctorAppointmentOutput);
-            return;
-        }
-
-        Provider provider = findProviderByNPI(doctorNPI.getText());
-        if (provider == null || !(provider instanceof Doctor)) {
-            updateOutput(doctorNPI.getText() + " - provider doesn't exist", doctorAppointmentOutput);
-            return;
-        }
+        try {
+            Date appointmentDate = toDate(doctorAppointmentDate.getValue());
+            Timeslot timeSlot = selectedTimeslot(doctorTimeSlot);
+            Profile patient = new Profile(doctorFirstName.getText(), doctorLastName.getText(),
+                    toDate(doctorDOB.getValue()));
 
-        if (hasExistingAppointment(appointmentDate, timeSlot,
-                doctorFirstName.getText(), doctorLastName.getText(), dob)) {
-            updateOutput("Patient already has an appointment", doctorAppointmentOutput);
-            return;
+            Appointment appointment = scheduler.bookDoctorAppointment(appointmentDate, timeSlot, patient,
+                    doctorNPI.getText());
+            updateOutput("Appointment booked successfully: " + appointment.toString(), doctorAppointmentOutput);
+        } catch (IllegalArgumentException e) {
+            updateOutput(e.getMessage(), doctorAppointmentOutput);
+        } catch (UncheckedIOException e) {
+            updateOutput("Change could not be saved to the journal: " + e.getCause().getMessage(), doctorAppointmentOutput);
         }
-
-        Appointment appointment = new Appointment(
-                appointmentDate,
-                timeSlot,
-                new Patient(doctorFirstName.getText(), doctorLastName.getText(), dob),
-                provider);
-
-        appointments.add(appointment);
-        updateOutput("Appointment booked successfully: " + appointment.toString(), doctorAppointmentOutput);
-
-    } catch (Exception e) {
-        updateOutput("Error processing dates. Please use format MM/dd/yyyy", doctorAppointmentOutput);
     }
-}
-
 
     /**
      * Schedules a new technician appointment.
-     * Gets the needed information from the FXML-injected fields and creates the appointment.
+     * Gets the needed information from the FXML-injected fields and passes it to the scheduler.
      */
     @FXML
     private void handleTechnicianBooking() {
@@ -438,93 +374,24 @@ public class ClinicManagerController {
         }
 
         try {
-            Date appointmentDate = new Date(
-                    techAppointmentDate.getValue().getYear(),
-                    techAppointmentDate.getValue().getMonthValue(),
-                    techAppointmentDate.getValue().getDayOfMonth());
-            
-            //validate appointment date
-            if(appointmentDate.isSixMonthsOrMoreInFuture()) {
-                updateOutput("Appointment cannot be six months in the future", technicianAppointmentOutput);
-                return;
-            }
-            if(appointmentDate.isBeforeToday()) {
-                updateOutput("Appointment cannot be in the past", technicianAppointmentOutput);
-                return;
-            }
-
-            Date dob = new Date(
-                    techDOB.getValue().getYear(),
-                    techDOB.getValue().getMonthValue(),
-                    techDOB.getValue().getDayOfMonth());
-            
-            // check if dob is in the future
-            if(dob.isAfterToday()) {
-                updateOutput("Patient DOB cannot be in the future", technicianAppointmentOutput);
-                return;
-            }
-
-            Timeslot timeSlot = new Timeslot(getTimeSlotIndex(techTimeSlot.getValue()));
-            // check if time slot is invalid
-            if (!timeSlot.isValid()) {
-                updateOutput("Invalid time slot selected" ,technicianAppointmentOutput);
-                return;
-            }
-
+            Date appointmentDate = toDate(techAppointmentDate.getValue());
+            Timeslot timeSlot = selectedTimeslot(techTimeSlot);
+            Profile patient = new Profile(techFirstName.getText(), techLastName.getText(),
+                    toDate(techDOB.getValue()));
             Radiology imagingService = Radiology.valueOf(imagingType.getValue());
 
-            // check if appointmenrt is already booked
-            if (hasExistingAppointment(appointmentDate, timeSlot,
-                    techFirstName.getText(), techLastName.getText(), dob)) {
-                updateOutput("Patient already has an appointment for the selected time slot and date", technicianAppointmentOutput);
-                return;
-            }
-
-            // check if date and time is available
-            boolean isAvailable = true;
-            for (Appointment a : appointments) {
-                if(a.getDate().equals(appointmentDate) &&
-                        a.getTimeSlot().equals(timeSlot) &&
-                        a.getPatient().getProfile().getFirstName().equals(techFirstName.getText()) &&
-                        a.getPatient().getProfile().getLastName().equals(techLastName.getText()) &&
-                        a.getPatient().getProfile().getDateOfBirth().equals(dob)) {
-                    isAvailable = false;
-                    break;
-                }
-            }
-
-            if(!isAvailable) { 
-                updateOutput("Patient already has an appointment for the selected time slot", technicianAppointmentOutput);
-                return;
-            }
-
-
-            Technician technician = findAvailableTechnician(appointmentDate, imagingService, timeSlot);
-            // check if technician is available
-            if (technician == null) {
-                updateOutput("No available technician found for the selected time slot", technicianAppointmentOutput);
-                return;
-            }
-
-            technician.bookTimeSlot(timeSlot);
-            Imaging imaging = new Imaging(
-                    appointmentDate,
-                    timeSlot,
-                    new Patient(techFirstName.getText(), techLastName.getText(), dob),
-                    technician,
-                    imagingService);
-
-            appointments.add(imaging);
+            Imaging imaging = scheduler.bookImagingAppointment(appointmentDate, timeSlot, patient, imagingService);
             updateOutput("Imaging appointment booked successfully: " + imaging.toString(), technicianAppointmentOutput);
-
-        } catch (Exception e) {
-            //Prevents exceptions being printed to the terminal
+        } catch (IllegalArgumentException e) {
+            updateOutput(e.getMessage(), technicianAppointmentOutput);
+        } catch (UncheckedIOException e) {
+            updateOutput("Change could not be saved to the journal: " + e.getCause().getMessage(), technicianAppointmentOutput);
         }
     }
 
     /**
      * Reschedules an existing appointment.
-     * Gets the needed information from the FXML-injected fields and creates the appointment.
+     * Gets the needed information from the FXML-injected fields and passes it to the scheduler.
      */
     @FXML
     private void handleRescheduleAppointment() {
@@ -550,116 +417,27 @@ public class ClinicManagerController {
             return;
         }
         try {
-            Date appointmentDate = new Date(
-                    rescheduleOldDate.getValue().getYear(),
-                    rescheduleOldDate.getValue().getMonthValue(),
-                    rescheduleOldDate.getValue().getDayOfMonth());
-            Date newAppointmentDate = new Date(
-                rescheduleNewDate.getValue().getYear(),
-                rescheduleNewDate.getValue().getMonthValue(),
-                rescheduleNewDate.getValue().getDayOfMonth());
-    
-
-            //validate old appointment date
-            if(appointmentDate.isSixMonthsOrMoreInFuture()) {
-                updateOutput("Old appointment cannot be six months in the future", rescheduleAppointmentOutput);
-                return;
-            }
-            if(appointmentDate.isBeforeToday()) {
-                updateOutput("Old appointment cannot be in the past", rescheduleAppointmentOutput);
-                return;
-            }
-
-            //validate new appointment date
-            if(newAppointmentDate.isSixMonthsOrMoreInFuture()) {
-                updateOutput("New appointment cannot be six months in the future", rescheduleAppointmentOutput);
-                return;
-            }
-            if(newAppointmentDate.isBeforeToday()) {
-                updateOutput("New appointment cannot be in the past", rescheduleAppointmentOutput);
-                return;
-            }
-
-            // validate old time slot
-            Timeslot oldTS = new Timeslot(getTimeSlotIndex(rescheduleOldTimeSlot.getValue()));
-            if (!oldTS.isValid()) {
-                updateOutput("Invalid old time slot", rescheduleAppointmentOutput);
-                return;
-            }
-
-            Date dobDate = new Date(
-                    rescheduleDOB.getValue().getYear(),
-                    rescheduleDOB.getValue().getMonthValue(),
-                    rescheduleDOB.getValue().getDayOfMonth());
-
-            // check if dob is in the future
-            if(dobDate.isAfterToday()) {
-                updateOutput("Patient DOB cannot be in the future", rescheduleAppointmentOutput);
-                return;
-            }
-
-            // validate new time slot
-            Timeslot newTimeSlot = new Timeslot(getTimeSlotIndex(rescheduleNewTimeSlot.getValue()));
-            if (!newTimeSlot.isValid()) {
-                updateOutput("Invalid new time slot", rescheduleAppointmentOutput);
-                return;
-            }
+            Date appointmentDate = toDate(rescheduleOldDate.getValue());
+            Date newAppointmentDate = toDate(rescheduleNewDate.getValue());
+            Timeslot oldTS = selectedTimeslot(rescheduleOldTimeSlot);
+            Timeslot newTimeSlot = selectedTimeslot(rescheduleNewTimeSlot);
+            Profile patient = new Profile(rescheduleFirstName.getText(), rescheduleLastName.getText(),
+                    toDate(rescheduleDOB.getValue()));
 
-            // check if old appointment exists
-            Patient patient = new Patient(rescheduleFirstName.getText(), rescheduleLastName.getText(), dobDate);
-            boolean appointmentExists = false;
-            Appointment existingApp = null;
-
-            for (Appointment appointment : appointments) {
-                if (appointment.getPatient().equals(patient) &&
-                        appointment.getDate().equals(appointmentDate) &&
-                        appointment.getTimeSlot().equals(oldTS)) {
-                    appointmentExists = true;
-                    existingApp = appointment;
-                    break;
-                }
-            }
-
-            if (!appointmentExists) {
-                updateOutput(appointmentDate + " " + oldTS + " " + patient + " does not exist.", rescheduleAppointmentOutput);
-                return;
-            }
-
-            // check if new appointment is available
-            boolean isAvailable = true;
-            for (Appointment a : appointments) {
-                if (a.getPatient().equals(patient) &&
-                        a.getDate().equals(appointmentDate) &&
-                        a.getTimeSlot().equals(newTimeSlot)) {
-                    isAvailable = false;
-                    break;
-                }
-            }
-            for (Appointment a : appointments) {
-                if(a.getDate().equals(appointmentDate) &&
-                        a.getTimeSlot().equals(newTimeSlot)){
-                    isAvailable = false;
-                    break;
-                }
-            }
-
-            if (!isAvailable) {
-                appointments.remove(existingApp);
-                appointments.add(new Appointment(appointmentDate, newTimeSlot, patient, existingApp.getProvider()));
-                updateOutput("Rescheduled to " + appointmentDate + " " + newTimeSlot + " " +
-                        patient + " " + existingApp.getProvider(), rescheduleAppointmentOutput);
-            } else {
-                updateOutput("New appointment is not available", rescheduleAppointmentOutput);
-            }
-
-        } catch (Exception e) {
-            // prevents exceptions being printed to the terminal
+            Appointment rescheduled = scheduler.rescheduleAppointment(appointmentDate, oldTS,
+                    newAppointmentDate, newTimeSlot, patient);
+            updateOutput("Rescheduled to " + rescheduled.getDate() + " " + rescheduled.getTimeSlot() + " " +
+                    rescheduled.getPatient() + " " + rescheduled.getProvider(), rescheduleAppointmentOutput);
+        } catch (IllegalArgumentException e) {
+            updateOutput(e.getMessage(), rescheduleAppointmentOutput);
+        } catch (UncheckedIOException e) {
+            updateOutput("Change could not be saved to the journal: " + e.getCause().getMessage(), rescheduleAppointmentOutput);
         }
     }
 
     /**
      * Cancels an existing appointment.
-     * Gets the needed information from the FXML-injected fields and creates the appointment.
+     * Gets the needed information from the FXML-injected fields and passes it to the scheduler.
      */
     @FXML
     private void handleCancelAppointment() {
@@ -683,62 +461,19 @@ public class ClinicManagerController {
             return;
         }
         try {
-            Date appointmentDate = new Date(
-                    cancelDate.getValue().getYear(),
-                    cancelDate.getValue().getMonthValue(),
-                    cancelDate.getValue().getDayOfMonth());
-
-            if (!appointmentDate.isValid() || appointmentDate.isToday() || appointmentDate.isBeforeToday()) {
-                updateOutput("Appointment date: " + appointmentDate.toString() + " is today or a date before today", cancelAppointmentOutput);
-                return;
-            }
-
-            Timeslot timeslot = new Timeslot(getTimeSlotIndex(cancelTimeSlot.getValue()));
-            if (!timeslot.isValid()) {
-                updateOutput("Invalid time slot", cancelAppointmentOutput);
-                return;
-            }
-
-            Date dobDate = new Date(
-                    cancelDOB.getValue().getYear(),
-                    cancelDOB.getValue().getMonthValue(),
-                    cancelDOB.getValue().getDayOfMonth());
-
-            if (!dobDate.isValid() || dobDate.isToday() || dobDate.isAfterToday()) {
-                updateOutput("Invalid date of birth", cancelAppointmentOutput);
-                return;
-            }
-
+            Date appointmentDate = toDate(cancelDate.getValue());
+            Timeslot timeslot = selectedTimeslot(cancelTimeSlot);
+            Date dobDate = toDate(cancelDOB.getValue());
             Profile profile = new Profile(cancelFirstName.getText(), cancelLastName.getText(), dobDate);
-            Patient patient = new Patient(profile);
-
-            boolean appointmentExists = false;
-            Appointment existingApp = null;
-
-            for (Appointment appointment : appointments) {
-                if (appointment.getPatient().equals(patient) &&
-                        appointment.getDate().equals(appointmentDate) &&
-                        appointment.getTimeSlot().equals(timeslot)) {
-                    appointmentExists = true;
-                    existingApp = appointment;
-                    break;
-                }
-            }
 
-            if (!appointmentExists) {
-                updateOutput(appointmentDate + " " + timeslot + " " + patient + " does not exist.",
-                        cancelAppointmentOutput);
-                return;
-            }
-
-            appointments.remove(existingApp);
+            scheduler.cancelAppointment(appointmentDate, timeslot, profile);
             updateOutput(appointmentDate.toString() + " " + timeslot.toString() + " " +
                     cancelFirstName.getText() + " " + cancelLastName.getText() + " " +
                     dobDate.toString() + " - appointment has been canceled", cancelAppointmentOutput);
-
-        } catch (Exception e) {
-            // prevents exceptions being printed to the terminal
-            updateOutput("Missing data tokens.", cancelAppointmentOutput);
+        } catch (IllegalArgumentException e) {
+            updateOutput(e.getMessage(), cancelAppointmentOutput);
+        } catch (UncheckedIOException e) {
+            updateOutput("Change could not be saved to the journal: " + e.getCause().getMessage(), cancelAppointmentOutput);
         }
     }
 
@@ -817,12 +552,11 @@ public class ClinicManagerController {
      */
     private void printAppointments() {
         appointmentDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", appointmentDataOutput);
         } else {
             updateOutput("\n** List of appointments, ordered by date/time/provider.", appointmentDataOutput);
-            Sort.sortAppointmentsByDateAndTime(appointments);
-            for (Appointment appointment : appointments) {
+            for (Appointment appointment : scheduler.appointmentsByDateAndTime()) {
                 updateOutput(appointment.toString(), appointmentDataOutput);
             }
             updateOutput("** end of list **", appointmentDataOutput);
@@ -834,12 +568,11 @@ public class ClinicManagerController {
      */
     private void printPatientSortedAppointments() {
         appointmentDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", appointmentDataOutput);
         } else {
             updateOutput("\n** List of appointments, ordered by patient.", appointmentDataOutput);
-            Sort.sortAppointmentsByPatient(appointments);
-            for (Appointment appointment : appointments) {
+            for (Appointment appointment : scheduler.appointmentsByPatient()) {
                 updateOutput(appointment.toString(), appointmentDataOutput);
             }
             updateOutput("** end of list **", appointmentDataOutput);
@@ -851,68 +584,27 @@ public class ClinicManagerController {
      */
     private void printLocationSortedAppointments() {
         appointmentDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", appointmentDataOutput);
         } else {
             updateOutput("\n** List of appointments, ordered by county/date/time.", appointmentDataOutput);
-            Sort.sortAppointmentsByLocation(appointments);
-            for (Appointment appointment : appointments) {
+            for (Appointment appointment : scheduler.appointmentsByLocation()) {
                 updateOutput(appointment.toString(), appointmentDataOutput);
             }
             updateOutput("** end of list **\n", appointmentDataOutput);
         }
     }
 
-    /**
-     * Sorts the billing list.
-     * @param billingList the list to be sorted
-     */
-    private void sortBillingList(List<PatientBilling> billingList) {
-        for (int i = 0; i < billingList.size() - 1; i++) {
-            for (int j = i + 1; j < billingList.size(); j++) {
-                PatientBilling entry1 = (PatientBilling) billingList.get(i);
-                PatientBilling entry2 = (PatientBilling) billingList.get(j);
-
-                if (entry1.compareTo(entry2) > 0) {
-                    PatientBilling temp = entry1;
-                    billingList.set(i, entry2);
-                    billingList.set(j, temp);
-                }
-            }
-        }
-    }
-
     /**
      * Prints the billing statement ordered by patient.
      */
     private void printBillingStatements() {
         financialDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", financialDataOutput);
         } else {
             updateOutput("** Billing statement ordered by patient. **", financialDataOutput);
-            List<PatientBilling> billingList = new List<>();
-
-            for (Appointment appointment : appointments) {
-                Person patient = appointment.getPatient();
-                Provider provider = appointment.getProvider();
-                int visitCost = provider.rate();
-
-                boolean found = false;
-                for (PatientBilling billing : billingList) {
-                    if (billing.getPatient().equals(patient)) {
-                        billing.addAmount(visitCost);
-                        found = true;
-                        break;
-                    }
-                }
-
-                if (!found) {
-                    billingList.add(new PatientBilling(patient, visitCost));
-                }
-            }
-
-            sortBillingList(billingList);
+            List<PatientBilling> billingList = scheduler.billingStatements();
 
             for (int i = 0; i < billingList.size(); i++) {
                 PatientBilling billing = billingList.get(i);
@@ -924,7 +616,7 @@ public class ClinicManagerController {
             }
 
             updateOutput("** end of list **", financialDataOutput);
-            clearAppointments();
+            scheduler.clearAppointments();
         }
     }
 
@@ -933,26 +625,20 @@ public class ClinicManagerController {
      */
     private void printProviderCredits() {
         financialDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", financialDataOutput);
         } else {
             updateOutput("** Credit amount ordered by provider. **", financialDataOutput);
+            long[] credits = scheduler.providerCredits();
+            List<Provider> providers = scheduler.getProviders();
             Sort.sortProvidersByProfile(providers);
 
             for (int i = 0; i < providers.size(); i++) {
                 Provider provider = providers.get(i);
-                double totalCredits = 0;
-
-                for (Appointment appointment : appointments) {
-                    if (appointment.getProvider().equals(provider)) {
-                        totalCredits += provider.rate();
-                    }
-                }
-
                 updateOutput(String.format("(%d) %s [credit amount: $%s]",
                         i + 1,
                         provider.toString(),
-                        df.format(totalCredits)),
+                        df.format(credits[provider.getId()])),
                         financialDataOutput);
             }
 
@@ -960,26 +646,16 @@ public class ClinicManagerController {
         }
     }
 
-    /**
-     * Clears the list of appointments.
-     */
-    private void clearAppointments() {
-        while (!appointments.isEmpty()) {
-            appointments.remove(appointments.get(0));
-        }
-    }
-
     /**
      * Prints the list of office appointments ordered by county/date/time.
      */
     private void printOfficeAppointments() {
         appointmentDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", appointmentDataOutput);
         } else {
             updateOutput("\n** List of office appointments ordered by county/date/time.", appointmentDataOutput);
-            Sort.sortAppointmentsByLocation(appointments);
-            for (Appointment appointment : appointments) {
+            for (Appointment appointment : scheduler.appointmentsByLocation()) {
                 if (!(appointment instanceof Imaging)) {
                     updateOutput(appointment.toString(), appointmentDataOutput);
                 }
@@ -993,12 +669,11 @@ public class ClinicManagerController {
      */
     private void printImagingAppointments() {
         appointmentDataOutput.clear();
-        if (appointments.isEmpty()) {
+        if (scheduler.getAppointmentCount() == 0) {
             updateOutput("Schedule calendar is empty.", appointmentDataOutput);
         } else {
             updateOutput("\n** List of radiology appointments ordered by county/date/time.", appointmentDataOutput);
-            Sort.sortAppointmentsByLocation(appointments);
-            for (Appointment appointment : appointments) {
+            for (Appointment appointment : scheduler.appointmentsByLocation()) {
                 if (appointment instanceof Imaging) {
                     updateOutput(appointment.toString(), appointmentDataOutput);
                 }
@@ -1008,93 +683,12 @@ public class ClinicManagerController {
     }
 
     /**
-     * Helper method to find a provider by NPI.
-     * @param npi the NPI
-     * @return the provider or null if provider not found
-     */
-    private Provider findProviderByNPI(String npi) {
-        for (Provider provider : providers) {
-            if (provider instanceof Doctor && ((Doctor) provider).getNPI().equals(npi)) {
-                return provider;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Helper method to find an available technician.
-     * @param date date of the appointment
-     * @param imagingService imaging service
-     * @param timeSlot time slot of the appointment
-     * @return the available technician or null if no one is available
+     * Helper method to get the time slot selected in a combo box.
+     * The combo box items follow the time slot order, so the selected index maps straight to the slot.
+     * @param timeSlotBox the combo box
+     * @return the selected time slot
      */
-    private Technician findAvailableTechnician(Date date, Radiology imagingService, Timeslot timeSlot) {
-        if (rotationList == null) {
-            initializeTechnicianList();
-        }
-
-        int startIndex = currentIndex;
-        do {
-            Technician tech = rotationList.get(currentIndex);
-            if (tech.isAvailable(timeSlot) && tech.canPerform(imagingService)) {
-                currentIndex = (currentIndex + 1) % rotationList.size();
-                return tech;
-            }
-            currentIndex = (currentIndex + 1) % rotationList.size();
-        } while (currentIndex != startIndex);
-
-        return null;
-    }
-
-    /**
-     * Initializes the technician rotation list.
-     */
-    private void initializeTechnicianList() {
-        rotationList = new List<>();
-        for (Provider provider : providers) {
-            if (provider instanceof Technician) {
-                rotationList.add((Technician) provider);
-            }
-        }
-        Sort.sortTechniciansByLocationAndRate(rotationList);
-        currentIndex = 0;
-    }
-
-    /**
-     * Checks if an appointment already exists for the given patient, date, and time slot.
-     * @param date the appointment date
-     * @param timeSlot the appointment time slot
-     * @param firstName the first name of the patient
-     * @param lastName the last name of the patient
-     * @param dob the date of birth of the patient
-     * @return true if an appointment already exists, false otherwise
-     */
-    private boolean hasExistingAppointment(Date date, Timeslot timeSlot, String firstName, String lastName, Date dob) {
-        for (Appointment appointment : appointments) {
-            if (appointment.getDate().equals(date) &&
-                    appointment.getTimeSlot().equals(timeSlot) &&
-                    appointment.getPatient().getProfile().getFirstName().equals(firstName) &&
-                    appointment.getPatient().getProfile().getLastName().equals(lastName) &&
-                    appointment.getPatient().getProfile().getDateOfBirth().equals(dob)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Helper method to get the index of a time slot.
-     * @param timeSlot the time slot
-     * @return the index of the time slot
-     */
-    private int getTimeSlotIndex(String timeSlot) {
-        String[] timeSlots = { "9:00 AM", "9:30 AM", "10:00 AM", "10:30 AM", "11:00 AM",
-                "11:30 AM", "2:00 PM", "2:30 PM", "3:00 PM", "3:30 PM",
-                "4:00 PM", "4:30 PM" };
-        for (int i = 0; i < timeSlots.length; i++) {
-            if (timeSlots[i].equals(timeSlot))
-                return i + 1;
-        }
-        return 1;
+    private Timeslot selectedTimeslot(ComboBox<String> timeSlotBox) {
+        return Timeslot.of(timeSlotBox.getSelectionModel().getSelectedIndex() + 1);
     }
 }
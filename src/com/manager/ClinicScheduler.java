@@ -0,0 +1,946 @@
+package com.manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UI-free scheduling engine for the Clinic Manager.
+ * Owns the provider roster, the appointment calendar and the technician rotation,
+ * and implements booking, canceling, rescheduling, reporting and billing.
+ * The JavaFX controller only collects input and prints results; batch jobs and
+ * load tests can drive this class directly.
+ * Once the roster is loaded, booking, canceling and rescheduling may be called from several
+ * threads at once. A provider's slot is claimed with a lock-free compare-and-set in the
+ * SlotCalendar, and the AppointmentStore then records the appointment under its day's lock.
+ * Rejected operations throw an IllegalArgumentException carrying the message to show the user.
+ * With a journal open, every change is on disk before the method making it returns, and
+ * the calendar is rebuilt from the journal when it is opened. If forcing the journal fails,
+ * the method throws an UncheckedIOException but the change stays in the calendar, pending
+ * on disk until the next sync that succeeds. The calendar is snapshotted
+ * periodically, so opening the journal loads the latest snapshot and replays only the changes after it.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class ClinicScheduler
+{
+    /** Minutes between calendar snapshots while a journal is open */
+    private static final int SNAPSHOT_MINUTES = 5;
+
+    /** List of providers in id order, never reordered */
+    private List<Provider> providers;
+    /** Canonical patients with their dense ids */
+    private PatientRegistry patients;
+    /** Appointments partitioned by date */
+    private AppointmentStore store;
+    /** Technician rotation for imaging, null until the next imaging booking */
+    private volatile TechnicianRotation rotation;
+    /** Booked time slots of each provider by date */
+    private SlotCalendar calendar;
+    /** Imaging rooms of each location and their booked time slots */
+    private RoomInventory rooms;
+    /** Sorted report views of the appointments */
+    private CalendarViews views;
+    /** Off-heap archive of the appointments cleared from the calendar */
+    private volatile AppointmentHistory history;
+    /** Doctors indexed by NPI */
+    private HashMap<String, Doctor> doctorsByNPI;
+    /** Journal of appointment changes, or null if changes are not journaled */
+    private volatile AppointmentJournal journal;
+    /** Takes the periodic calendar snapshots while a journal is open */
+    private ScheduledExecutorService snapshots;
+    /** LSN of the latest calendar snapshot */
+    private volatile long snapshotLsn;
+
+    /**
+     * Creates a scheduler with no providers and an empty calendar.
+     */
+    public ClinicScheduler()
+    {
+        providers = new List<>();
+        calendar = new SlotCalendar();
+        rooms = new RoomInventory(SlotGrid.current().size());
+        views = new CalendarViews();
+        patients = new PatientRegistry();
+        store = new AppointmentStore(views, patients);
+        history = new AppointmentHistory();
+        doctorsByNPI = new HashMap<>();
+    }
+
+    /**
+     * Adds a provider to the roster and assigns it the next dense id.
+     * The technician rotation is rebuilt on the next imaging booking.
+     * The roster must not change while bookings are in progress.
+     *
+     * @param provider the provider to add
+     */
+    public void addProvider(Provider provider)
+    {
+        provider.setId(providers.size());
+        providers.add(provider);
+        calendar.ensureCapacity(providers.size());
+        if (provider instanceof Doctor)
+            doctorsByNPI.put(((Doctor) provider).getNPI(), (Doctor) provider);
+        if (provider instanceof Technician)
+            rooms.addLocation(provider.getLocation());
+        rotation = null;
+    }
+
+    /**
+     * Sets the number of imaging rooms a location has for a service.
+     * Locations of technicians on the roster start with one room for each service.
+     * The rooms must not change while bookings are in progress.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param count    the number of rooms
+     * @throws IllegalArgumentException if the count is not positive or above RoomInventory.MAX_ROOMS
+     */
+    public void setImagingRooms(Location location, Radiology service, int count)
+    {
+        rooms.setRooms(location, service, count);
+    }
+
+    /**
+     * Opens the appointment journal in a directory, rebuilds the calendar from it and
+     * records every later change in it.
+     * The roster must be loaded first, and no bookings may be in progress.
+     *
+     * @param directory the directory holding the journal
+     * @return the number of journaled changes replayed
+     * @throws IOException if the journal cannot be read or created
+     */
+    public int openJournal(Path directory) throws IOException
+    {
+        return openJournal(directory, AppointmentJournal.DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens the appointment journal in a directory with the given segment size, rebuilds the
+     * calendar from the latest snapshot and the journal records after it, and records every
+     * later change in the journal.
+     * The roster must be loaded first, and no bookings may be in progress.
+     *
+     * @param directory    the directory holding the journal
+     * @param segmentBytes the size past which a journal segment is closed and a new one started
+     * @return the number of journaled changes replayed
+     * @throws IOException if the journal cannot be read or created
+     */
+    public int openJournal(Path directory, long segmentBytes) throws IOException
+    {
+        AppointmentJournal opened = new AppointmentJournal(directory, segmentBytes);
+        snapshotLsn = CalendarSnapshot.load(directory, this);
+        int replayed = opened.replay(this, snapshotLsn);
+        journal = opened;
+        store.setJournal(opened);
+
+        snapshots = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            Thread thread = new Thread(task, "calendar-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(this::snapshotIfChanged, SNAPSHOT_MINUTES, SNAPSHOT_MINUTES,
+                TimeUnit.MINUTES);
+        return replayed;
+    }
+
+    /**
+     * Writes a snapshot of the calendar next to the journal and deletes the journal segments
+     * the previous snapshot covers, so either snapshot can rebuild the calendar.
+     *
+     * @return the LSN of the last journal record in the snapshot, 0 if no journal is open
+     * @throws IOException if the snapshot cannot be written
+     */
+    public long snapshot() throws IOException
+    {
+        AppointmentJournal opened = journal;
+        if (opened == null)
+            return 0;
+
+        List<Appointment> copy = new List<>();
+        long lsn = store.snapshot(copy);
+        CalendarSnapshot.write(opened.getDirectory(), lsn, copy);
+        opened.deleteSegmentsThrough(snapshotLsn);
+        snapshotLsn = lsn;
+        return lsn;
+    }
+
+    /**
+     * Takes a snapshot if the journal has grown since the last one.
+     */
+    private void snapshotIfChanged()
+    {
+        AppointmentJournal opened = journal;
+        if (opened == null || opened.getLastLsn() == snapshotLsn)
+            return;
+        try
+        {
+            snapshot();
+        }
+        catch (IOException | UncheckedIOException e)
+        {
+            // the journal still holds every change; the next period tries again
+        }
+    }
+
+    /**
+     * Takes a final snapshot, stops journaling and closes the journal, if one is open.
+     * No bookings may be in progress.
+     *
+     * @throws IOException if the snapshot cannot be written or the journal cannot be closed
+     */
+    public void closeJournal() throws IOException
+    {
+        AppointmentJournal opened = journal;
+        if (opened == null)
+            return;
+
+        snapshots.shutdown();
+        try
+        {
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if (opened.getLastLsn() != snapshotLsn)
+            snapshot();
+        store.setJournal(null);
+        journal = null;
+        opened.close();
+    }
+
+    /**
+     * Keeps the appointment history in a memory-mapped file instead of direct memory,
+     * loading the appointments archived in the file by earlier runs and discarding the
+     * history so far in memory. The roster must be loaded first, so archived appointments
+     * find their providers. Must run before the journal is opened, so that the calendars
+     * the journal clears on replay are archived in the file, each of them once.
+     *
+     * @param file the history file, created if it does not exist
+     * @throws IOException if the file cannot be opened or is not a history file
+     */
+    public void openHistory(Path file) throws IOException
+    {
+        AppointmentHistory previous = history;
+        history = new AppointmentHistory(getProviders(), file);
+        previous.close();
+    }
+
+    /**
+     * Returns the archive of the appointments cleared from the calendar.
+     *
+     * @return the appointment history
+     */
+    public AppointmentHistory getHistory()
+    {
+        return history;
+    }
+
+    /**
+     * Returns a copy of the provider roster in id order.
+     * Sorting the copy leaves the roster, whose order the provider ids index, unchanged.
+     *
+     * @return the list of providers
+     */
+    public List<Provider> getProviders()
+    {
+        List<Provider> copy = new List<>(providers.size());
+        copy.addAll(providers);
+        return copy;
+    }
+
+    /**
+     * Returns the provider with the given id.
+     *
+     * @param id the id of the provider
+     * @return the provider, or null if no provider has the id
+     */
+    public Provider getProvider(int id)
+    {
+        return id >= 0 && id < providers.size() ? providers.get(id) : null;
+    }
+
+    /**
+     * Returns the registry of the patients who have booked.
+     *
+     * @return the patient registry
+     */
+    public PatientRegistry getPatients()
+    {
+        return patients;
+    }
+
+    /**
+     * Returns a snapshot of the appointment calendar ordered by date.
+     *
+     * @return the list of appointments
+     */
+    public List<Appointment> getAppointments()
+    {
+        return store.toList();
+    }
+
+    /**
+     * Returns the number of appointments on the calendar.
+     *
+     * @return the appointment count
+     */
+    public int getAppointmentCount()
+    {
+        return store.size();
+    }
+
+    /**
+     * Returns the technician rotation list, building it if needed.
+     *
+     * @return the technicians in rotation order
+     */
+    public List<Technician> getRotationList()
+    {
+        return getRotation().getTechnicians();
+    }
+
+    /**
+     * Books an office visit with the doctor identified by the NPI.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @param npi      the NPI of the doctor
+     * @return the booked appointment
+     * @throws IllegalArgumentException if the appointment cannot be booked
+     */
+    public Appointment bookDoctorAppointment(Date date, Timeslot timeSlot, Profile patient, String npi)
+    {
+        validateAppointmentDate(date, "Appointment");
+        validateDateOfBirth(patient.getDateOfBirth());
+
+        if (hasExistingAppointment(date, timeSlot, patient))
+            throw new IllegalArgumentException("Patient already has an appointment at the selected time slot and date");
+
+        Provider provider = findProviderByNPI(npi);
+        if (provider == null)
+            throw new IllegalArgumentException(npi + " - provider doesn't exist");
+
+        if (!calendar.tryReserve(provider.getId(), date.toEpochDay(), slotIndex(timeSlot)))
+            throw new IllegalArgumentException(provider + " is not available at slot " + timeSlot.getSlotIndex());
+
+        Appointment appointment = new Appointment(date, timeSlot, patients.intern(patient), provider);
+        if (add(appointment) != AppointmentStore.Result.BOOKED)
+        {
+            calendar.release(provider.getId(), date.toEpochDay(), slotIndex(timeSlot));
+            throw new IllegalArgumentException("Patient already has an appointment at the selected time slot and date");
+        }
+        syncJournal();
+        return appointment;
+    }
+
+    /**
+     * Books an imaging appointment with the next available technician in the rotation.
+     * If another desk takes the technician's slot first, or every room for the service at
+     * the technician's location is taken, the next technician is tried.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @param service  the imaging service
+     * @return the booked imaging appointment
+     * @throws IllegalArgumentException if the appointment cannot be booked
+     */
+    public Imaging bookImagingAppointment(Date date, Timeslot timeSlot, Profile patient, Radiology service)
+    {
+        validateAppointmentDate(date, "Appointment");
+        validateDateOfBirth(patient.getDateOfBirth());
+
+        if (hasExistingAppointment(date, timeSlot, patient))
+            throw new IllegalArgumentException("Patient already has an appointment for the selected time slot and date");
+
+        int epochDay = date.toEpochDay();
+        int slot = slotIndex(timeSlot);
+        TechnicianRotation technicians = getRotation();
+        int[] reserved = new int[1];
+        Technician technician = technicians.reserveNext(epochDay, slot, service, reserved);
+        if (technician == null)
+            throw new IllegalArgumentException("No available technician found for the selected time slot");
+
+        Location location = technician.getLocation();
+        int room = reserved[0];
+        Imaging imaging = new Imaging(date, timeSlot, patients.intern(patient), technician, service, room);
+        if (add(imaging) == AppointmentStore.Result.BOOKED)
+        {
+            syncJournal();
+            return imaging;
+        }
+
+        rooms.release(location, service, epochDay, slot, room);
+        technicians.release(technician, epochDay, slot);
+        throw new IllegalArgumentException("Patient already has an appointment for the selected time slot and date");
+    }
+
+    /**
+     * Cancels an existing appointment.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return the canceled appointment
+     * @throws IllegalArgumentException if the appointment cannot be canceled
+     */
+    public Appointment cancelAppointment(Date date, Timeslot timeSlot, Profile patient)
+    {
+        if (!date.isValid() || date.isToday() || date.isBeforeToday())
+            throw new IllegalArgumentException("Appointment date: " + date + " is today or a date before today");
+
+        Date dob = patient.getDateOfBirth();
+        if (!dob.isValid() || dob.isToday() || dob.isAfterToday())
+            throw new IllegalArgumentException("Invalid date of birth");
+
+        Appointment existing = store.remove(date, timeSlot, patient);
+        if (existing == null)
+            throw new IllegalArgumentException(date + " " + timeSlot + " " + patient + " does not exist.");
+
+        release(existing, date.toEpochDay(), slotIndex(timeSlot));
+        syncJournal();
+        return existing;
+    }
+
+    /**
+     * Moves an existing appointment to a new date and time slot with the same provider.
+     *
+     * @param date        the current appointment date
+     * @param timeSlot    the current appointment time slot
+     * @param newDate     the new appointment date
+     * @param newTimeSlot the new appointment time slot
+     * @param patient     the profile of the patient
+     * @return the rescheduled appointment
+     * @throws IllegalArgumentException if the appointment cannot be rescheduled
+     */
+    public Appointment rescheduleAppointment(Date date, Timeslot timeSlot, Date newDate, Timeslot newTimeSlot,
+                                             Profile patient)
+    {
+        validateAppointmentDate(date, "Old appointment");
+        validateAppointmentDate(newDate, "New appointment");
+        validateDateOfBirth(patient.getDateOfBirth());
+
+        Appointment existing = findAppointment(date, timeSlot, patient);
+        if (existing == null)
+            throw new IllegalArgumentException(date + " " + timeSlot + " " + patient + " does not exist.");
+
+        Provider provider = existing.getProvider();
+        int newEpochDay = newDate.toEpochDay();
+        int newSlot = slotIndex(newTimeSlot);
+        if (hasExistingAppointment(newDate, newTimeSlot, patient) || !reserve(provider, newEpochDay, newSlot))
+            throw new IllegalArgumentException("New appointment is not available");
+
+        Appointment rescheduled;
+        if (existing instanceof Imaging)
+        {
+            Radiology service = ((Imaging) existing).getRoom();
+            int room = rooms.reserve(provider.getLocation(), service, newEpochDay, newSlot);
+            if (room == 0)
+            {
+                release(provider, newEpochDay, newSlot);
+                throw new IllegalArgumentException("New appointment is not available");
+            }
+            rescheduled = new Imaging(newDate, newTimeSlot, (Patient) existing.getPatient(), (Technician) provider,
+                    service, room);
+        }
+        else
+            rescheduled = new Appointment(newDate, newTimeSlot, existing.getPatient(), provider);
+
+        AppointmentStore.Result result;
+        try
+        {
+            result = store.move(existing, rescheduled);
+        }
+        catch (RuntimeException e)
+        {
+            release(rescheduled, newEpochDay, newSlot);
+            throw e;
+        }
+        if (result != AppointmentStore.Result.BOOKED)
+        {
+            release(rescheduled, newEpochDay, newSlot);
+            if (result == AppointmentStore.Result.NOT_FOUND)
+                throw new IllegalArgumentException(date + " " + timeSlot + " " + patient + " does not exist.");
+            throw new IllegalArgumentException("New appointment is not available");
+        }
+        release(existing, date.toEpochDay(), slotIndex(timeSlot));
+        syncJournal();
+        return rescheduled;
+    }
+
+    /**
+     * Returns the calendar ordered by date and time slot.
+     *
+     * @return the appointments in report order
+     */
+    public Iterable<Appointment> appointmentsByDateAndTime()
+    {
+        return views.byDateAndTime();
+    }
+
+    /**
+     * Returns the calendar ordered by patient.
+     *
+     * @return the appointments in report order
+     */
+    public Iterable<Appointment> appointmentsByPatient()
+    {
+        return views.byPatient();
+    }
+
+    /**
+     * Returns the calendar ordered by county, date and time slot.
+     *
+     * @return the appointments in report order
+     */
+    public Iterable<Appointment> appointmentsByLocation()
+    {
+        return views.byLocation();
+    }
+
+    /**
+     * Totals the amount due for each patient on the calendar, ordered by patient.
+     * One pass over each day's appointment columns aggregates visit costs into arrays indexed
+     * by patient id, then the per-patient totals are sorted once. The registry only holds the
+     * patients who booked in this run, not those loaded with the history, so the arrays stay
+     * sized by the live patients.
+     *
+     * @return the billing statement entries
+     */
+    public List<PatientBilling> billingStatements()
+    {
+        int count = patients.size();
+        long[] totals = new long[count];
+        int[] visits = new int[count];
+        store.sumByPatient(rates(), totals, visits);
+
+        List<PatientBilling> billingList = new List<>();
+        for (int id = 0; id < count; id++)
+        {
+            if (visits[id] == 0)
+                continue;
+            PatientBilling billing = new PatientBilling(patients.get(id), 0);
+            billing.addCents(totals[id] * 100L);
+            billingList.add(billing);
+        }
+
+        Sort.sortBillingByPatient(billingList);
+        return billingList;
+    }
+
+    /**
+     * Totals the credit earned by each provider on the calendar in one pass over each day's appointment columns.
+     *
+     * @return the credit amount of each provider, indexed by provider id
+     */
+    public long[] providerCredits()
+    {
+        return store.sumByProvider(rates());
+    }
+
+    /**
+     * Returns the rate per visit of each provider.
+     *
+     * @return the rates, indexed by provider id
+     */
+    private int[] rates()
+    {
+        int[] rates = new int[providers.size()];
+        for (Provider provider : providers)
+            rates[provider.getId()] = provider.rate();
+        return rates;
+    }
+
+    /**
+     * Clears the list of appointments, archiving them in the appointment history.
+     */
+    public void clearAppointments()
+    {
+        store.clear(history);
+        releaseAll();
+    }
+
+    /**
+     * Frees every provider slot, imaging room and technician turn after the calendar is cleared.
+     */
+    private void releaseAll()
+    {
+        calendar.clear();
+        rooms.clear();
+        TechnicianRotation technicians = rotation;
+        if (technicians != null)
+            technicians.clear();
+    }
+
+    /**
+     * Checks that an appointment date is valid, not in the past and less than six months away.
+     *
+     * @param date  the appointment date
+     * @param label the name of the date used in the error message
+     * @throws IllegalArgumentException if the date cannot be booked
+     */
+    private void validateAppointmentDate(Date date, String label)
+    {
+        if (!date.isValid())
+            throw new IllegalArgumentException("Invalid " + label.toLowerCase() + " date");
+        if (date.isSixMonthsOrMoreInFuture())
+            throw new IllegalArgumentException(label + " cannot be six months in the future");
+        if (date.isBeforeToday())
+            throw new IllegalArgumentException(label + " cannot be in the past");
+    }
+
+    /**
+     * Checks that a date of birth is valid and not in the future.
+     *
+     * @param dob the date of birth
+     * @throws IllegalArgumentException if the date of birth is invalid
+     */
+    private void validateDateOfBirth(Date dob)
+    {
+        if (!dob.isValid())
+            throw new IllegalArgumentException("Invalid birth date");
+        if (dob.isAfterToday())
+            throw new IllegalArgumentException("Patient DOB cannot be in the future");
+    }
+
+    /**
+     * Finds a doctor by NPI in O(1).
+     *
+     * @param npi the NPI
+     * @return the doctor or null if provider not found
+     */
+    public Doctor findProviderByNPI(String npi)
+    {
+        return doctorsByNPI.get(npi);
+    }
+
+    /**
+     * Finds the next technician in the rotation who is free, can perform the service and has
+     * a free room for it at their location. Advances the rotation past the technician returned.
+     *
+     * @param date           date of the appointment
+     * @param imagingService imaging service
+     * @param timeSlot       time slot of the appointment
+     * @return the available technician or null if no one is available
+     */
+    public Technician findAvailableTechnician(Date date, Radiology imagingService, Timeslot timeSlot)
+    {
+        return getRotation().next(date.toEpochDay(), slotIndex(timeSlot), imagingService);
+    }
+
+    /**
+     * Returns the technician rotation, building it from the roster if needed.
+     *
+     * @return the technician rotation
+     */
+    private TechnicianRotation getRotation()
+    {
+        TechnicianRotation technicians = rotation;
+        if (technicians == null)
+            technicians = initializeRotation();
+
+        return technicians;
+    }
+
+    /**
+     * Builds the technician rotation from the roster, sorted by location and rate.
+     *
+     * @return the technician rotation
+     */
+    private synchronized TechnicianRotation initializeRotation()
+    {
+        if (rotation != null)
+            return rotation;
+
+        List<Technician> technicians = new List<>();
+        for (Provider provider : providers)
+        {
+            if (provider instanceof Technician)
+                technicians.add((Technician) provider);
+        }
+        Sort.sortTechniciansByLocationAndRate(technicians);
+        rotation = new TechnicianRotation(technicians, calendar, rooms, SlotGrid.current().size());
+        return rotation;
+    }
+
+    /**
+     * Reserves a provider's slot, keeping the technician rotation in step for technicians.
+     *
+     * @param provider the provider
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @return true if the slot was free and is now reserved, false if it was already taken
+     */
+    private boolean reserve(Provider provider, int epochDay, int slot)
+    {
+        if (provider instanceof Technician)
+            return getRotation().reserve((Technician) provider, epochDay, slot);
+
+        return calendar.tryReserve(provider.getId(), epochDay, slot);
+    }
+
+    /**
+     * Frees a provider's slot, keeping the technician rotation in step for technicians.
+     *
+     * @param provider the provider
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     */
+    private void release(Provider provider, int epochDay, int slot)
+    {
+        if (provider instanceof Technician)
+            getRotation().release((Technician) provider, epochDay, slot);
+        else
+            calendar.release(provider.getId(), epochDay, slot);
+    }
+
+    /**
+     * Adds a booked appointment to the store, freeing its provider slot and room if the
+     * journal cannot record it, whether it fails to write or rejects a name that is too long.
+     *
+     * @param appointment the appointment, with its provider slot and room reserved
+     * @return BOOKED, or the reason the appointment was not added
+     * @throws IllegalArgumentException if the journal cannot encode the patient's name
+     * @throws UncheckedIOException     if the journal cannot record the booking
+     */
+    private AppointmentStore.Result add(Appointment appointment)
+    {
+        try
+        {
+            return store.add(appointment);
+        }
+        catch (RuntimeException e)
+        {
+            release(appointment, appointment.getDate().toEpochDay(), slotIndex(appointment.getTimeSlot()));
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until the journal holds every change made so far, if a journal is open.
+     * The change being synced is already in the calendar and is not rolled back if the
+     * force fails: it stays pending, is made durable by the next sync that succeeds, and
+     * may be lost if the process stops first.
+     *
+     * @throws UncheckedIOException if the journal cannot be written to disk
+     */
+    private void syncJournal()
+    {
+        AppointmentJournal opened = journal;
+        if (opened != null)
+            opened.sync();
+    }
+
+    /**
+     * Restores a journaled booking with its provider and room, without checking the date.
+     *
+     * @param appointment the appointment
+     * @return true if the appointment was restored, false if its provider slot, room or patient slot is taken
+     */
+    boolean restore(Appointment appointment)
+    {
+        int epochDay = appointment.getDate().toEpochDay();
+        int slot = slotIndex(appointment.getTimeSlot());
+        if (!reserve(appointment, epochDay, slot))
+            return false;
+        if (store.add(appointment) == AppointmentStore.Result.BOOKED)
+            return true;
+
+        release(appointment, epochDay, slot);
+        return false;
+    }
+
+    /**
+     * Restores a journaled clear of the calendar, archiving the cleared appointments
+     * unless the history already holds them from before a restart.
+     *
+     * @param lsn the journal LSN of the clear
+     */
+    void restoreClear(long lsn)
+    {
+        AppointmentHistory archive = history;
+        store.restoreClear(lsn > archive.getArchivedLsn() ? archive : null, lsn);
+        releaseAll();
+    }
+
+    /**
+     * Restores a journaled cancellation, without checking the date.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return true if the appointment was canceled, false if it does not exist
+     */
+    boolean restoreCancel(Date date, Timeslot timeSlot, Profile patient)
+    {
+        Appointment existing = store.remove(date, timeSlot, patient);
+        if (existing == null)
+            return false;
+
+        release(existing, date.toEpochDay(), slotIndex(timeSlot));
+        return true;
+    }
+
+    /**
+     * Restores a journaled reschedule, without checking the dates.
+     *
+     * @param date        the current appointment date
+     * @param timeSlot    the current appointment time slot
+     * @param patient     the profile of the patient
+     * @param newDate     the new appointment date
+     * @param newTimeSlot the new appointment time slot
+     * @param room        the number of the imaging room at the new time, 0 for an office visit
+     * @return true if the appointment was moved, false if it does not exist or the new slot is taken
+     */
+    boolean restoreReschedule(Date date, Timeslot timeSlot, Profile patient, Date newDate, Timeslot newTimeSlot,
+                              int room)
+    {
+        Appointment existing = store.find(date, timeSlot, patient);
+        if (existing == null)
+            return false;
+
+        Appointment rescheduled;
+        if (existing instanceof Imaging)
+            rescheduled = new Imaging(newDate, newTimeSlot, (Patient) existing.getPatient(),
+                    (Technician) existing.getProvider(), ((Imaging) existing).getRoom(), room);
+        else
+            rescheduled = new Appointment(newDate, newTimeSlot, existing.getPatient(), existing.getProvider());
+
+        int newEpochDay = newDate.toEpochDay();
+        int newSlot = slotIndex(newTimeSlot);
+        if (!reserve(rescheduled, newEpochDay, newSlot))
+            return false;
+        if (store.move(existing, rescheduled) != AppointmentStore.Result.BOOKED)
+        {
+            release(rescheduled, newEpochDay, newSlot);
+            return false;
+        }
+        release(existing, date.toEpochDay(), slotIndex(timeSlot));
+        return true;
+    }
+
+    /**
+     * Reserves the provider slot of an appointment and, for imaging, its given room.
+     *
+     * @param appointment the appointment
+     * @param epochDay    the day as days since 1/1/1970
+     * @param slot        the zero-based slot index
+     * @return true if everything was free and is now reserved, false if nothing was reserved
+     */
+    private boolean reserve(Appointment appointment, int epochDay, int slot)
+    {
+        Provider provider = appointment.getProvider();
+        if (!reserve(provider, epochDay, slot))
+            return false;
+        if (!(appointment instanceof Imaging))
+            return true;
+
+        Imaging imaging = (Imaging) appointment;
+        if (rooms.reserve(provider.getLocation(), imaging.getRoom(), epochDay, slot, imaging.getRoomNumber()))
+            return true;
+
+        release(provider, epochDay, slot);
+        return false;
+    }
+
+    /**
+     * Frees the provider's slot of an appointment and, for imaging, its room.
+     *
+     * @param appointment the appointment
+     * @param epochDay    the day as days since 1/1/1970
+     * @param slot        the zero-based slot index
+     */
+    private void release(Appointment appointment, int epochDay, int slot)
+    {
+        Provider provider = appointment.getProvider();
+        if (appointment instanceof Imaging)
+        {
+            Imaging imaging = (Imaging) appointment;
+            rooms.release(provider.getLocation(), imaging.getRoom(), epochDay, slot, imaging.getRoomNumber());
+        }
+        release(provider, epochDay, slot);
+    }
+
+    /**
+     * Finds the appointment of a patient at the given date and time slot.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return the appointment or null if there is none
+     */
+    public Appointment findAppointment(Date date, Timeslot timeSlot, Profile patient)
+    {
+        return store.find(date, timeSlot, patient);
+    }
+
+    /**
+     * Checks if an appointment already exists for the given patient, date, and time slot.
+     *
+     * @param date     the appointment date
+     * @param timeSlot the appointment time slot
+     * @param patient  the profile of the patient
+     * @return true if an appointment already exists, false otherwise
+     */
+    private boolean hasExistingAppointment(Date date, Timeslot timeSlot, Profile patient)
+    {
+        return findAppointment(date, timeSlot, patient) != null;
+    }
+
+    /**
+     * Returns the zero-based index of a time slot in the calendar bitmaps.
+     *
+     * @param timeSlot the time slot
+     * @return the zero-based slot index
+     */
+    private int slotIndex(Timeslot timeSlot)
+    {
+        return timeSlot.getSlotIndex() - 1;
+    }
+
+    /**
+     * Testbed main() booking more imaging appointments at one time slot than a location has rooms.
+     * Two locations have three XRAY technicians and one XRAY room each, so the first two bookings
+     * go to one technician at each location and the rest find no room. Includes expected outputs.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args)
+    {
+        ClinicScheduler scheduler = new ClinicScheduler();
+        String[] cities = { "PISCATAWAY", "BRIDGEWATER" };
+        for (int i = 0; i < 6; i++)
+            scheduler.addProvider(new Technician(new Profile("TECH" + i, "ROOMS", new Date(1990, 1, 1 + i)),
+                    new Location(cities[i % 2]), 100 + i, Radiology.values()));
+
+        LocalDate local = LocalDate.now().plusDays(1);
+        Date date = new Date(local.getYear(), local.getMonthValue(), local.getDayOfMonth());
+        for (int i = 0; i < 4; i++)
+        {
+            try
+            {
+                Imaging imaging = scheduler.bookImagingAppointment(date, Timeslot.of(1),
+                        new Profile("PATIENT" + i, "ROOMS", new Date(1980, 1, 1)), Radiology.XRAY);
+                System.out.println("Booked " + imaging.getProvider().getLocation().getCity() + " room "
+                        + imaging.getRoomNumber());
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.out.println(e.getMessage());
+            }
+        }
+        // Expected: Booked BRIDGEWATER room 1, Booked PISCATAWAY room 1, then
+        // No available technician found for the selected time slot, twice
+    }
+}
@@ -1,24 +1,30 @@
 package com.manager;
 
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.ZoneId;
 
 /**
  * This class implements the Date object.
  * Provides methods to validate dates, check for weekends, and compare dates.
  * Implements Comparable to allow sorting of dates.
+ * Each date also keeps a packed yyyymmdd form for comparisons and its epoch day for
+ * weekday and today arithmetic, so none of the checks allocate.
  * 
  * @author Harsh Singh
  * @see Comparable
- * @see Calendar
  */
 public class Date implements Comparable<Date>
 {
     /**Year */
-    private int year;
+    private final int year;
     /**Month is of the year */
-    private int month;
+    private final int month;
     /**Day of the month */
-    private int day;
+    private final int day;
+    /**The date packed as yyyymmdd, ordered like the date */
+    private final int packed;
+    /**Days since 1/1/1970 */
+    private final int epochDay;
 
     /**Constants for month lengths and leap year calculations */
     private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
@@ -30,6 +36,11 @@ public class Date implements Comparable<Date>
     private static final int CENTENNIAL = 100;
     /**Quatercentennial year */
     private static final int QUATERCENTENNIAL = 400;
+    /**Months in the booking window */
+    private static final int BOOKING_WINDOW_MONTHS = 6;
+
+    /**Today's date, replaced once the next midnight has passed */
+    private static volatile Today today = Today.now();
 
     /**
      * Constructor for the Date object.
@@ -43,6 +54,8 @@ public class Date implements Comparable<Date>
         this.year = year;
         this.month = month;
         this.day = day;
+        this.packed = pack(year, month, day);
+        this.epochDay = toEpochDay(year, month, day);
     }
 
     /**
@@ -53,11 +66,17 @@ public class Date implements Comparable<Date>
      */
     public Date(String str)
     {
-        String[] date = str.split("/");
+        this(str.split("/"));
+    }
 
-        this.month = Integer.parseInt(date[0]);
-        this.day = Integer.parseInt(date[1]);
-        this.year = Integer.parseInt(date[2]);
+    /**
+     * Constructor for the Date object from the parts of a "M/D/YYYY" string.
+     * 
+     * @param date The month, day and year
+     */
+    private Date(String[] date)
+    {
+        this(Integer.parseInt(date[2]), Integer.parseInt(date[0]), Integer.parseInt(date[1]));
     }
 
     /**
@@ -71,21 +90,31 @@ public class Date implements Comparable<Date>
         if (month < 1 || month > 12)
             return false;
 
-        int maxDays;
-        if (isLeapYear() && month == 2)
-            maxDays = LEAP_YEAR_FEB_DAYS;
-        else
-            maxDays = DAYS_IN_MONTH[month - 1];
+        return day >= 1 && day <= daysInMonth(year, month);
+    }
 
-        return day >= 1 && day <= maxDays;
+    /**
+     * Helper method to get the number of days in a month.
+     * 
+     * @param year  The year
+     * @param month The month
+     * @return the number of days in the month
+     */
+    private static int daysInMonth(int year, int month)
+    {
+        if (isLeapYear(year) && month == 2)
+            return LEAP_YEAR_FEB_DAYS;
+
+        return DAYS_IN_MONTH[month - 1];
     }
 
     /**
-     * Helper method to check if the date is a leap year.
+     * Helper method to check if a year is a leap year.
      * 
+     * @param year The year
      * @return true if the year is a leap year, false otherwise
      */
-    private boolean isLeapYear()
+    private static boolean isLeapYear(int year)
     {
         if (year % QUADRENNIAL == 0)
         {
@@ -97,6 +126,114 @@ public class Date implements Comparable<Date>
         return false;
     }
 
+    /**
+     * Returns the number of days between 1/1/1970 and this date.
+     * 
+     * @return the epoch day of the date
+     */
+    public int toEpochDay()
+    {
+        return epochDay;
+    }
+
+    /**
+     * Creates a date from the number of days since 1/1/1970.
+     * 
+     * @param epochDay the epoch day
+     * @return the date
+     */
+    public static Date ofEpochDay(int epochDay)
+    {
+        int days = epochDay + 719468;
+        int era = (days >= 0 ? days : days - 146096) / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / QUADRENNIAL - yearOfEra / CENTENNIAL);
+        int marchMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        int month = marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+        int year = yearOfEra + era * QUATERCENTENNIAL;
+        return new Date(month <= 2 ? year + 1 : year, month, day);
+    }
+
+    /**
+     * Returns the date packed as a yyyymmdd int, the form used to store dates in binary files.
+     * 
+     * @return the packed date
+     */
+    public int toPacked()
+    {
+        return packed;
+    }
+
+    /**
+     * Creates a date from its packed yyyymmdd form.
+     * 
+     * @param packed the packed date
+     * @return the date
+     */
+    public static Date ofPacked(int packed)
+    {
+        return new Date(packed / 10000, packed / 100 % 100, packed % 100);
+    }
+
+    /**
+     * Returns the number of days between 1/1/1970 and the given date.
+     * 
+     * @param year  The year
+     * @param month The month
+     * @param day   The day
+     * @return the epoch day of the date
+     */
+    private static int toEpochDay(int year, int month, int day)
+    {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / QUATERCENTENNIAL;
+        int yearOfEra = y - era * QUATERCENTENNIAL;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / QUADRENNIAL - yearOfEra / CENTENNIAL + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Packs a date into a yyyymmdd int that orders like the date.
+     * 
+     * @param year  The year
+     * @param month The month
+     * @param day   The day
+     * @return the packed date
+     */
+    private static int pack(int year, int month, int day)
+    {
+        return (year * 100 + month) * 100 + day;
+    }
+
+    /**
+     * Returns the day of the week, 1 for Monday through 7 for Sunday.
+     * 1/1/1970 was a Thursday.
+     * 
+     * @return the ISO day of the week
+     */
+    public int getDayOfWeek()
+    {
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * Returns the date the given number of months later.
+     * The day is clamped to the length of the resulting month, so 1/31 plus one month is 2/28 or 2/29.
+     * 
+     * @param months The number of months to add, may be negative
+     * @return the new date
+     */
+    public Date plusMonths(int months)
+    {
+        int total = year * 12 + (month - 1) + months;
+        int newYear = Math.floorDiv(total, 12);
+        int newMonth = Math.floorMod(total, 12) + 1;
+        return new Date(newYear, newMonth, Math.min(day, daysInMonth(newYear, newMonth)));
+    }
+
     /**
      * Helper method to check if the date is a weekend.
      * 
@@ -104,14 +241,7 @@ public class Date implements Comparable<Date>
      */
     public boolean isWeekend()
     {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, year);
-        calendar.set(Calendar.MONTH, month - 1);
-        calendar.set(Calendar.DAY_OF_MONTH, day);
-
-        int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
-
-        return (dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY);
+        return getDayOfWeek() >= 6;
     }
 
     /**
@@ -122,11 +252,7 @@ public class Date implements Comparable<Date>
      */
     public boolean isToday()
     {
-        Calendar today = Calendar.getInstance();
-
-        return (this.year == today.get(Calendar.YEAR) &&
-                this.month == (today.get(Calendar.MONTH) + 1) &&
-                this.day == today.get(Calendar.DAY_OF_MONTH));
+        return epochDay == today().epochDay;
     }
 
     /**
@@ -137,11 +263,7 @@ public class Date implements Comparable<Date>
      */
     public boolean isBeforeToday()
     {
-        Calendar today = Calendar.getInstance();
-        Calendar dateToCompare = Calendar.getInstance();
-        dateToCompare.set(year, month - 1, day);
-
-        return dateToCompare.before(today);
+        return epochDay < today().epochDay;
     }
 
     /**
@@ -152,28 +274,34 @@ public class Date implements Comparable<Date>
      */
     public boolean isAfterToday()
     {
-        Calendar today = Calendar.getInstance();
-        Calendar dateToCompare = Calendar.getInstance();
-        dateToCompare.set(year, month - 1, day);
-
-        return dateToCompare.after(today);
+        return epochDay > today().epochDay;
     }
 
     /**
-     * Helper method to check if the date is within six months of today.
+     * Helper method to check if the date is past the six month booking window.
      * Used for comparisons in Scheduler.java.
      * 
-     * @return true if the date is within six months of today, false otherwise
+     * @return true if the date is six months or more after today, false otherwise
      */
     public boolean isSixMonthsOrMoreInFuture()
     {
-        Calendar currentDate = Calendar.getInstance();
-        currentDate.add(Calendar.MONTH, 6);
-
-        Calendar dateToCheck = Calendar.getInstance();
-        dateToCheck.set(year, month - 1, day);
+        return epochDay >= today().sixMonthsEpochDay;
+    }
 
-        return dateToCheck.after(currentDate);
+    /**
+     * Returns today's date, refreshing the cached value once midnight has passed.
+     * 
+     * @return today's date
+     */
+    private static Today today()
+    {
+        Today current = today;
+        if (System.currentTimeMillis() >= current.expiresAtMillis)
+        {
+            current = Today.now();
+            today = current;
+        }
+        return current;
     }
 
     /**
@@ -190,8 +318,18 @@ public class Date implements Comparable<Date>
         if (o == null || getClass() != o.getClass())
             return false;
 
-        Date date = (Date) o;
-        return year == date.year && month == date.month && day == date.day;
+        return packed == ((Date) o).packed;
+    }
+
+    /**
+     * Returns the hash code of the date, consistent with equals.
+     * 
+     * @return the hash code based on the year, month and day
+     */
+    @Override
+    public int hashCode()
+    {
+        return packed;
     }
 
     /**
@@ -214,12 +352,46 @@ public class Date implements Comparable<Date>
     @Override
     public int compareTo(Date other)
     {
-        if (this.year != other.year)
-            return this.year - other.year;
-        else if (this.month != other.month)
-            return this.month - other.month;
-        else
-            return this.day - other.day;
+        return Integer.compare(this.packed, other.packed);
+    }
+
+    /**
+     * Today's date in the system time zone, cached until the next midnight.
+     */
+    private static final class Today
+    {
+        /**Today's epoch day */
+        private final int epochDay;
+        /**The epoch day six months from today, the first date past the booking window */
+        private final int sixMonthsEpochDay;
+        /**The instant of the next midnight, in milliseconds since the epoch */
+        private final long expiresAtMillis;
+
+        /**
+         * Creates the cached value for a day.
+         * 
+         * @param date            Today's date
+         * @param expiresAtMillis The instant of the next midnight
+         */
+        private Today(Date date, long expiresAtMillis)
+        {
+            this.epochDay = date.epochDay;
+            this.sixMonthsEpochDay = date.plusMonths(BOOKING_WINDOW_MONTHS).epochDay;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /**
+         * Reads the system clock.
+         * 
+         * @return the cached value for the current day
+         */
+        private static Today now()
+        {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate local = LocalDate.now(zone);
+            long midnight = local.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new Today(new Date(local.getYear(), local.getMonthValue(), local.getDayOfMonth()), midnight);
+        }
     }
 
     /**
@@ -255,5 +427,19 @@ public class Date implements Comparable<Date>
         Date weekday = new Date(2024, 9, 28);
         System.out.println(weekend + " is a weekend: " + weekend.isWeekend()); // Expected: false
         System.out.println(weekday + " is a weekend: " + weekday.isWeekend()); // Expected: true
+
+        // Testing plusMonths method
+        System.out.println(new Date(2024, 8, 31).plusMonths(6)); // Expected: 2/28/2025
+        System.out.println(new Date(2023, 11, 30).plusMonths(3)); // Expected: 2/29/2024
+        System.out.println(new Date(2024, 3, 15).plusMonths(-4)); // Expected: 11/15/2023
+
+        // Testing the six month booking window boundary
+        LocalDate local = LocalDate.now();
+        Date today = new Date(local.getYear(), local.getMonthValue(), local.getDayOfMonth());
+        Date sixMonths = today.plusMonths(6);
+        Date dayBefore = Date.ofEpochDay(sixMonths.toEpochDay() - 1);
+        System.out.println(today + " is six months or more in future: " + today.isSixMonthsOrMoreInFuture()); // Expected: false
+        System.out.println(dayBefore + " is six months or more in future: " + dayBefore.isSixMonthsOrMoreInFuture()); // Expected: false
+        System.out.println(sixMonths + " is six months or more in future: " + sixMonths.isSixMonthsOrMoreInFuture()); // Expected: true
     }
 }
@@ -9,6 +9,8 @@ public class Imaging extends Appointment
 {
     /** the room for the imaging */
     private Radiology room;
+    /** the number of the room at the technician's location, starting at 1, or 0 if none is assigned */
+    private int roomNumber;
 
     /**
      * Constructs an Imaging appointment.
@@ -20,9 +22,26 @@ public class Imaging extends Appointment
      * @param room       the radiology room for the imaging
      */
     public Imaging(Date date, Timeslot timeSlot, Patient patient, Technician technician, Radiology room)
+    {
+        this(date, timeSlot, patient, technician, room, 0);
+    }
+
+    /**
+     * Constructs an Imaging appointment in a numbered room.
+     * 
+     * @param date       the date of the appointment
+     * @param timeSlot   the time slot for the appointment
+     * @param patient    the patient involved in the appointment
+     * @param technician the technician performing the imaging
+     * @param room       the radiology room for the imaging
+     * @param roomNumber the number of the room at the technician's location, starting at 1
+     */
+    public Imaging(Date date, Timeslot timeSlot, Patient patient, Technician technician, Radiology room,
+                   int roomNumber)
     {
         super(date, timeSlot, patient, technician);
         this.room = room;
+        this.roomNumber = roomNumber;
     }
 
     /**
@@ -35,6 +54,16 @@ public class Imaging extends Appointment
         return this.room;
     }
 
+    /**
+     * Returns the number of the room at the technician's location.
+     * 
+     * @return the room number, starting at 1, or 0 if none is assigned
+     */
+    public int getRoomNumber()
+    {
+        return this.roomNumber;
+    }
+
     /**
      * Returns a string representation of the appointment.
      * 
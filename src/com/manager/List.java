@@ -1,6 +1,8 @@
 package com.manager;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.Predicate;
 
 /**
  * Represents a list of elements of type E.
@@ -27,6 +29,20 @@ public class List<E> implements Iterable<E> {
         size = 0;
     }
 
+    /**
+     * Creates an empty list that can hold the given number of elements without growing.
+     * 
+     * @param initialCapacity the initial capacity of the list
+     */
+    @SuppressWarnings("unchecked")
+    public List(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+
+        objects = (E[]) new Object[initialCapacity];
+        size = 0;
+    }
+
     /**
      * Find the index of the element e in the list.
      * 
@@ -45,13 +61,27 @@ public class List<E> implements Iterable<E> {
     /**
      * Grows the list capacity when needed.
      */
-    @SuppressWarnings("unchecked")
     private void grow() {
-        E[] newObjects = (E[]) new Object[objects.length * 2];
-        for (int i = 0; i < size; i++) {
-            newObjects[i] = objects[i];
-        }
-        objects = newObjects;
+        ensureCapacity(size + 1);
+    }
+
+    /**
+     * Grows the backing array, if needed, so it can hold at least the given number of elements.
+     * The capacity at least doubles, so a run of adds stays amortized O(1).
+     * 
+     * @param minCapacity the minimum number of elements to hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > objects.length)
+            objects = Arrays.copyOf(objects, Math.max(minCapacity, Math.max(objects.length * 2, DEFAULT_CAPACITY)));
+    }
+
+    /**
+     * Shrinks the backing array to the number of elements in the list.
+     */
+    public void trimToSize() {
+        if (objects.length > size)
+            objects = Arrays.copyOf(objects, size);
     }
 
     /**
@@ -75,6 +105,17 @@ public class List<E> implements Iterable<E> {
         objects[size++] = element;
     }
 
+    /**
+     * Adds every element of another list to the end of this list.
+     * 
+     * @param other the list whose elements are added
+     */
+    public void addAll(List<? extends E> other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.objects, 0, objects, size, other.size);
+        size += other.size;
+    }
+
     /**
      * Removes the first occurrence of the specified element from the list.
      * 
@@ -82,12 +123,51 @@ public class List<E> implements Iterable<E> {
      */
     public void remove(E e) {
         int index = find(e);
-        if (index != -1) {
-            for (int i = index; i < size - 1; i++)
-                objects[i] = objects[i + 1];
+        if (index != -1)
+            removeAt(index);
+    }
+
+    /**
+     * Removes the element at the specified index, shifting later elements left.
+     * 
+     * @param index the index of the element to remove
+     * @return the removed element, or null if the index is out of range
+     */
+    public E removeAt(int index) {
+        if (index < 0 || index >= size)
+            return null;
+
+        E removed = objects[index];
+        System.arraycopy(objects, index + 1, objects, index, size - index - 1);
+        objects[--size] = null;
+        return removed;
+    }
 
-            objects[--size] = null;
+    /**
+     * Removes every element that matches the filter in a single pass.
+     * 
+     * @param filter the condition for removing an element
+     * @return true if any element was removed
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!filter.test(objects[i]))
+                objects[kept++] = objects[i];
         }
+
+        boolean removed = kept != size;
+        Arrays.fill(objects, kept, size, null);
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * Removes every element from the list.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
     }
 
     /**
@@ -170,12 +250,13 @@ public class List<E> implements Iterable<E> {
     }
 
     /**
-     * Sorts the list using the specified comparator.
+     * Sorts the list in place using the specified comparator.
+     * The sort is a stable merge sort (TimSort) over the backing array, O(n log n).
      * 
      * @param comparator the comparator to use for sorting
      */
     public void sort(java.util.Comparator<? super E> comparator) {
-        java.util.Arrays.sort((E[]) objects, 0, size, comparator);
+        Arrays.sort(objects, 0, size, comparator);
     }
 
     /**
@@ -1,5 +1,8 @@
 package com.manager;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents the location of a provider.
  * 
@@ -14,6 +17,8 @@ public class Location
     private String county;
     /** The zip code */
     private String zipCode;
+    /** Dense index of the city, shared by every Location of the same city */
+    private final int index;
 
     /** Custom data structure for city to county and zip code mapping */
     private static final String[][] cityToCountyAndZip = {
@@ -26,6 +31,11 @@ public class Location
         // Add more cities as needed
     };
 
+    /** Dense index of each city seen so far, by upper-case city name */
+    private static final ConcurrentHashMap<String, Integer> cityIndex = new ConcurrentHashMap<>();
+    /** Index handed to the next new city */
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
     /**
      * Constructor for Location
      * 
@@ -50,6 +60,18 @@ public class Location
             this.county = "Unknown";
             this.zipCode = "00000";
         }
+        this.index = cityIndex.computeIfAbsent(city.toUpperCase(), key -> nextIndex.getAndIncrement());
+    }
+
+    /**
+     * Returns the dense index of the city.
+     * Locations of the same city share an index, and indexes run from 0 in the order cities are first seen.
+     * 
+     * @return the city index
+     */
+    public int getIndex()
+    {
+        return index;
     }
 
     /**
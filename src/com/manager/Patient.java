@@ -2,18 +2,15 @@ package com.manager;
 
 /**
  * Represents a patient with a profile.
+ * The name and date of birth are read from the profile.
  * 
  * @author Surya Bhardwaj
  * @author Harsh Singh
  */
 public class Patient extends Person
 {
-    /**First name of the patient */
-    private String firstName;
-    /**Last name of the patient */
-    private String lastName;
-    /**Date of birth of the patient */
-    private Date dob;
+    /**Dense id assigned by the patient registry, or -1 if the patient is not registered */
+    private int id;
 
     /**
      * Constructs a new patient with the given first name, last name, and date of birth.
@@ -24,10 +21,7 @@ public class Patient extends Person
      */
     public Patient(String firstName, String lastName, Date dob)
     {
-        super(new Profile(firstName, lastName, dob));
-        this.firstName = firstName;
-        this.lastName = lastName;
-        this.dob = dob;
+        this(new Profile(firstName, lastName, dob));
     }
 
     /**
@@ -38,9 +32,27 @@ public class Patient extends Person
     public Patient(Profile profile)
     {
         super(profile);
-        this.firstName = profile.getFirstName();
-        this.lastName = profile.getLastName();
-        this.dob = profile.getDateOfBirth();
+        this.id = -1;
+    }
+
+    /**
+     * Gets the dense id the patient registry assigned to the patient.
+     * 
+     * @return the id, or -1 if the patient is not registered
+     */
+    public int getId()
+    {
+        return id;
+    }
+
+    /**
+     * Sets the dense id of the patient.
+     * 
+     * @param id the new id
+     */
+    void setId(int id)
+    {
+        this.id = id;
     }
 
     /**
@@ -50,7 +62,7 @@ public class Patient extends Person
      */
     public String getFirstName()
     {
-        return firstName;
+        return profile.getFirstName();
     }
 
     /**
@@ -60,7 +72,7 @@ public class Patient extends Person
      */
     public String getLastName()
     {
-        return lastName;
+        return profile.getLastName();
     }
 
     /**
@@ -70,7 +82,7 @@ public class Patient extends Person
      */
     public String getDob()
     {
-        return dob.toString();
+        return profile.getDateOfBirth().toString();
     }
 
     /**
@@ -81,6 +93,6 @@ public class Patient extends Person
     @Override
     public String toString()
     {
-        return firstName + " " + lastName + " " + dob.toString();
+        return profile.getFirstName() + " " + profile.getLastName() + " " + profile.getDateOfBirth().toString();
     }
 }
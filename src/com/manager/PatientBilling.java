@@ -9,19 +9,19 @@ public class PatientBilling implements Comparable<PatientBilling>
 {
     /**Patient */
     private Person patient;
-    /**Amount due */
-    private int amountDue;
+    /**Amount due in cents */
+    private long amountDueCents;
 
     /**
      * Constructor method. Sets patient and amountDue
      * 
      * @param patient   Patient to be added
-     * @param amountDue Amount due to be added
+     * @param amountDue Amount due to be added, in dollars
      */
     public PatientBilling(Person patient, int amountDue)
     {
         this.patient = patient;
-        this.amountDue = amountDue;
+        this.amountDueCents = amountDue * 100L;
     }
 
     /**
@@ -37,21 +37,41 @@ public class PatientBilling implements Comparable<PatientBilling>
     /**
      * Getter for amountDue
      * 
-     * @return Return the amountDue
+     * @return Return the amountDue in dollars
      */
-    public int getAmountDue()
+    public double getAmountDue()
     {
-        return amountDue;
+        return amountDueCents / 100.0;
+    }
+
+    /**
+     * Getter for the amount due in cents
+     * 
+     * @return Return the amountDue in cents
+     */
+    public long getAmountDueCents()
+    {
+        return amountDueCents;
     }
 
     /**
      * Adds amount to amountDue
      * 
-     * @param amount Amount to be added
+     * @param amount Amount to be added, in dollars
      */
     public void addAmount(int amount)
     {
-        this.amountDue += amount;
+        this.amountDueCents += amount * 100L;
+    }
+
+    /**
+     * Adds an amount in cents to amountDue
+     * 
+     * @param cents Amount to be added, in cents
+     */
+    public void addCents(long cents)
+    {
+        this.amountDueCents += cents;
     }
 
     /**
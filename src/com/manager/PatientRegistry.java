@@ -0,0 +1,118 @@
+package com.manager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Master index of the clinic's patients.
+ * Each distinct profile is interned once as a canonical Patient holding a dense id, numbered
+ * from 0 in order of registration, so a repeat patient is one object however many times they
+ * book, and appointments, billing and conflict checks can key on the id instead of hashing names.
+ * Lookups by profile take no lock; registering a new patient is serialized so ids stay dense.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class PatientRegistry
+{
+    /** Initial capacity of the id table */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The canonical patient of each registered profile */
+    private final ConcurrentHashMap<Profile, Patient> patients;
+    /** The patients indexed by id, valid up to count */
+    private volatile Patient[] byId;
+    /** Number of registered patients */
+    private volatile int count;
+
+    /**
+     * Creates an empty registry.
+     */
+    public PatientRegistry()
+    {
+        patients = new ConcurrentHashMap<>();
+        byId = new Patient[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the canonical patient of a profile, registering them under the next id if they are new.
+     *
+     * @param profile the profile of the patient
+     * @return the canonical patient
+     */
+    public Patient intern(Profile profile)
+    {
+        Patient patient = patients.get(profile);
+        if (patient != null)
+            return patient;
+
+        synchronized (this)
+        {
+            patient = patients.get(profile);
+            if (patient != null)
+                return patient;
+
+            patient = new Patient(profile);
+            patient.setId(count);
+            Patient[] table = byId;
+            if (count == table.length)
+            {
+                Patient[] grown = new Patient[table.length * 2];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                table = grown;
+            }
+            table[count] = patient;
+            byId = table;
+            count++;
+            patients.put(profile, patient);
+            return patient;
+        }
+    }
+
+    /**
+     * Returns the canonical patient of a person's profile, reusing the person if they already are it.
+     *
+     * @param patient the patient
+     * @return the canonical patient
+     */
+    public Patient intern(Person patient)
+    {
+        if (patient instanceof Patient && get(((Patient) patient).getId()) == patient)
+            return (Patient) patient;
+        return intern(patient.getProfile());
+    }
+
+    /**
+     * Finds the canonical patient of a profile without registering them.
+     *
+     * @param profile the profile of the patient
+     * @return the patient, or null if the profile is not registered
+     */
+    public Patient find(Profile profile)
+    {
+        return patients.get(profile);
+    }
+
+    /**
+     * Returns the patient with the given id.
+     *
+     * @param id the id of the patient
+     * @return the patient, or null if no patient has the id
+     */
+    public Patient get(int id)
+    {
+        // count is published after the table holding it
+        int registered = count;
+        Patient[] table = byId;
+        return id >= 0 && id < registered ? table[id] : null;
+    }
+
+    /**
+     * Returns the number of registered patients, one more than the highest id.
+     *
+     * @return the patient count
+     */
+    public int size()
+    {
+        return count;
+    }
+}
@@ -18,6 +18,33 @@ public enum Radiology
     /** X-ray imaging service. */
     XRAY;
 
+    /** Bitmask with the bit of every imaging service set */
+    public static final int ALL = (1 << values().length) - 1;
+
+    /**
+     * Returns the bit of this service in a service bitmask.
+     * 
+     * @return the service bit
+     */
+    public int bit()
+    {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Builds a service bitmask from a list of services.
+     * 
+     * @param services the services
+     * @return the bitmask with the bit of each service set
+     */
+    public static int mask(Radiology... services)
+    {
+        int mask = 0;
+        for (Radiology service : services)
+            mask |= service.bit();
+        return mask;
+    }
+
     /**
      * Get the type of imaging service.
      * 
@@ -0,0 +1,219 @@
+package com.manager;
+
+import java.util.Arrays;
+
+/**
+ * Imaging room inventory per location and imaging service.
+ * Every (location, service) pair owns a number of rooms, one by default, numbered from 1.
+ * Each room is given a dense room id, and room occupancy is kept in a SlotCalendar under
+ * those ids, so reserving a room is the same lock-free compare-and-set on a per-day
+ * bitmap that reserves a provider's slot.
+ * Rooms must be added with {@link #addLocation(Location)} or {@link #setRooms(Location, Radiology, int)}
+ * before reservations begin.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class RoomInventory
+{
+    /** Number of rooms each location has for each service unless set otherwise */
+    public static final int DEFAULT_ROOMS = 1;
+    /** Most rooms a location can have for a service, so a room number fits in an unsigned byte */
+    public static final int MAX_ROOMS = 255;
+    /** Number of imaging services */
+    private static final int SERVICES = Radiology.values().length;
+
+    /** Room occupancy by room id */
+    private final SlotCalendar calendar;
+    /** Room ids of each (location index, service ordinal) pair, room n at n - 1, or null if none */
+    private volatile int[][] rooms;
+    /** Number of room ids handed out */
+    private int roomIds;
+
+    /**
+     * Creates an empty inventory for the given number of slots a day.
+     *
+     * @param slotsPerDay the number of slots in a day
+     */
+    public RoomInventory(int slotsPerDay)
+    {
+        calendar = new SlotCalendar(slotsPerDay);
+        rooms = new int[0][];
+    }
+
+    /**
+     * Gives a location the default number of rooms for every service it does not have rooms for yet.
+     *
+     * @param location the location
+     */
+    public synchronized void addLocation(Location location)
+    {
+        for (Radiology service : Radiology.values())
+        {
+            if (entry(location, service) == null)
+                setRooms(location, service, DEFAULT_ROOMS);
+        }
+    }
+
+    /**
+     * Sets the number of rooms a location has for a service.
+     * Must not run while other threads reserve or release rooms.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param count    the number of rooms
+     * @throws IllegalArgumentException if the count is not positive or above MAX_ROOMS
+     */
+    public synchronized void setRooms(Location location, Radiology service, int count)
+    {
+        if (count <= 0)
+            throw new IllegalArgumentException("Number of rooms must be positive: " + count);
+        if (count > MAX_ROOMS)
+            throw new IllegalArgumentException("Number of rooms must be at most " + MAX_ROOMS + ": " + count);
+
+        int key = key(location, service);
+        int[][] table = rooms;
+        if (key >= table.length)
+        {
+            int[][] grown = new int[Math.max(key + 1, table.length * 2)][];
+            System.arraycopy(table, 0, grown, 0, table.length);
+            table = grown;
+        }
+        else
+            table = table.clone();
+
+        // keep the ids of the rooms that stay so their bookings are kept
+        int[] current = table[key] == null ? new int[0] : table[key];
+        int[] ids = Arrays.copyOf(current, count);
+        for (int room = current.length; room < count; room++)
+            ids[room] = roomIds++;
+        calendar.ensureCapacity(roomIds);
+        table[key] = ids;
+        rooms = table;
+    }
+
+    /**
+     * Returns the number of rooms a location has for a service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @return the number of rooms, 0 if the location has none
+     */
+    public int getRooms(Location location, Radiology service)
+    {
+        int[] ids = entry(location, service);
+        return ids == null ? 0 : ids.length;
+    }
+
+    /**
+     * Atomically reserves a free room of a location for a service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @return the number of the reserved room, starting at 1, or 0 if every room is taken
+     */
+    public int reserve(Location location, Radiology service, int epochDay, int slot)
+    {
+        int[] ids = entry(location, service);
+        if (ids == null)
+            return 0;
+
+        for (int room = 0; room < ids.length; room++)
+        {
+            if (calendar.tryReserve(ids[room], epochDay, slot))
+                return room + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether a location has a free room for a service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @return true if some room is free at that time
+     */
+    public boolean isAvailable(Location location, Radiology service, int epochDay, int slot)
+    {
+        int[] ids = entry(location, service);
+        if (ids == null)
+            return false;
+
+        for (int id : ids)
+        {
+            if (calendar.isAvailable(id, epochDay, slot))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Atomically reserves a given room of a location for a service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @param room     the number of the room, starting at 1
+     * @return true if the room was free and is now reserved, false if it is taken or does not exist
+     */
+    public boolean reserve(Location location, Radiology service, int epochDay, int slot, int room)
+    {
+        int[] ids = entry(location, service);
+        return ids != null && room >= 1 && room <= ids.length && calendar.tryReserve(ids[room - 1], epochDay, slot);
+    }
+
+    /**
+     * Atomically frees a room of a location.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @param room     the number of the room, starting at 1
+     */
+    public void release(Location location, Radiology service, int epochDay, int slot, int room)
+    {
+        int[] ids = entry(location, service);
+        if (ids != null && room >= 1 && room <= ids.length)
+            calendar.release(ids[room - 1], epochDay, slot);
+    }
+
+    /**
+     * Frees every room.
+     */
+    public void clear()
+    {
+        calendar.clear();
+    }
+
+    /**
+     * Returns the room ids of a location and service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @return the room ids, or null if the location has no rooms for the service
+     */
+    private int[] entry(Location location, Radiology service)
+    {
+        int key = key(location, service);
+        int[][] table = rooms;
+        return key < table.length ? table[key] : null;
+    }
+
+    /**
+     * Returns the table index of a location and service.
+     *
+     * @param location the location
+     * @param service  the imaging service
+     * @return the table index
+     */
+    private static int key(Location location, Radiology service)
+    {
+        return location.getIndex() * SERVICES + service.ordinal();
+    }
+}
@@ -0,0 +1,383 @@
+package com.manager;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Streaming loader for the provider roster file.
+ * The file is memory-mapped and tokenized in place: token boundaries are tracked as offsets
+ * into the mapped buffer, and dates, rates and specialties are parsed straight from the bytes,
+ * so the only objects created per line are the provider itself and its name strings.
+ * Malformed lines are reported and skipped without aborting the load.
+ *
+ * Each line has the form
+ * <pre>
+ * D  FIRST  LAST  M/D/YYYY  CITY  SPECIALTY  NPI
+ * T  FIRST  LAST  M/D/YYYY  CITY  RATE  [SERVICE,SERVICE,...]
+ * </pre>
+ * A technician line may list the imaging services the technician performs, separated by commas,
+ * for example {@code XRAY,ULTRASOUND}. Technicians without a list perform every service.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class RosterLoader
+{
+    /** Largest number of tokens read from a line */
+    private static final int MAX_TOKENS = 8;
+    /** Longest token copied into a string */
+    private static final int MAX_TOKEN_LENGTH = 256;
+    /** Services of a technician whose line lists none */
+    private static final int DEFAULT_SERVICES = Radiology.ALL;
+
+    /** The scheduler receiving the providers */
+    private final ClinicScheduler scheduler;
+    /** Start offset of each token of the current line */
+    private final int[] tokenStart;
+    /** End offset, exclusive, of each token of the current line */
+    private final int[] tokenEnd;
+    /** Scratch buffer used to turn a token into a string */
+    private final byte[] scratch;
+    /** Locations already created, by city */
+    private final HashMap<String, Location> locations;
+    /** The mapped roster file */
+    private MappedByteBuffer buffer;
+    /** Number of tokens on the current line */
+    private int tokens;
+
+    /**
+     * Creates a loader that adds providers to the given scheduler.
+     *
+     * @param scheduler the scheduler receiving the providers
+     */
+    public RosterLoader(ClinicScheduler scheduler)
+    {
+        this.scheduler = scheduler;
+        tokenStart = new int[MAX_TOKENS];
+        tokenEnd = new int[MAX_TOKENS];
+        scratch = new byte[MAX_TOKEN_LENGTH];
+        locations = new HashMap<>();
+    }
+
+    /**
+     * Loads every provider in the roster file into the scheduler.
+     *
+     * @param path the roster file
+     * @return one message for each line that was skipped
+     * @throws IOException if the file cannot be read
+     */
+    public List<String> load(Path path) throws IOException
+    {
+        List<String> errors = new List<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Roster file is too large: " + path);
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int limit = (int) size;
+            int lineStart = 0;
+            int lineNumber = 0;
+
+            while (lineStart < limit)
+            {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+                    lineEnd++;
+                lineNumber++;
+
+                String error = parseLine(lineStart, lineEnd);
+                if (error != null)
+                    errors.add("Line " + lineNumber + ": " + error + ", skipping: " + text(lineStart, lineEnd).trim());
+
+                lineStart = lineEnd + 1;
+            }
+        }
+        finally
+        {
+            buffer = null;
+        }
+        return errors;
+    }
+
+    /**
+     * Parses one line and adds its provider to the scheduler.
+     *
+     * @param start offset of the first byte of the line
+     * @param end   offset just past the last byte of the line
+     * @return the reason the line was skipped, or null if it was loaded or blank
+     */
+    private String parseLine(int start, int end)
+    {
+        tokenize(start, end);
+        if (tokens == 0)
+            return null;
+        if (tokens < 5)
+            return "Invalid line format";
+
+        Date dob = parseDate(tokenStart[3], tokenEnd[3]);
+        if (dob == null)
+            return "Invalid date of birth";
+
+        Profile profile = new Profile(token(1), token(2), dob);
+        Location location = location(token(4));
+        byte type = tokenLength(0) == 1 ? buffer.get(tokenStart[0]) : 0;
+
+        if (type == 'D')
+        {
+            if (tokens < 7)
+                return "Missing specialty or NPI";
+
+            Specialty specialty = parseSpecialty(tokenStart[5], tokenEnd[5]);
+            if (specialty == null)
+                return "Unknown specialty";
+
+            scheduler.addProvider(new Doctor(profile, location, specialty, token(6)));
+            return null;
+        }
+        if (type == 'T')
+        {
+            if (tokens < 6)
+                return "Missing rate";
+
+            int rate = parseInt(tokenStart[5], tokenEnd[5]);
+            if (rate < 0)
+                return "Invalid rate";
+
+            int services = tokens < 7 ? DEFAULT_SERVICES : parseServices(tokenStart[6], tokenEnd[6]);
+            if (services <= 0)
+                return "Unknown imaging service";
+
+            scheduler.addProvider(new Technician(profile, location, rate, services));
+            return null;
+        }
+        return "Unknown provider type";
+    }
+
+    /**
+     * Records the offsets of the whitespace-separated tokens of a line.
+     *
+     * @param start offset of the first byte of the line
+     * @param end   offset just past the last byte of the line
+     */
+    private void tokenize(int start, int end)
+    {
+        tokens = 0;
+        int i = start;
+        while (i < end && tokens < MAX_TOKENS)
+        {
+            while (i < end && isWhitespace(buffer.get(i)))
+                i++;
+            if (i == end)
+                break;
+
+            tokenStart[tokens] = i;
+            while (i < end && !isWhitespace(buffer.get(i)))
+                i++;
+            tokenEnd[tokens++] = i;
+        }
+    }
+
+    /**
+     * Checks if a byte separates tokens.
+     *
+     * @param b the byte
+     * @return true for spaces, tabs and carriage returns
+     */
+    private static boolean isWhitespace(byte b)
+    {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Returns the length of a token.
+     *
+     * @param index the token index
+     * @return the number of bytes in the token
+     */
+    private int tokenLength(int index)
+    {
+        return tokenEnd[index] - tokenStart[index];
+    }
+
+    /**
+     * Copies a token into a string.
+     *
+     * @param index the token index
+     * @return the token text
+     */
+    private String token(int index)
+    {
+        return text(tokenStart[index], tokenEnd[index]);
+    }
+
+    /**
+     * Copies a range of the buffer into a string.
+     *
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the text
+     */
+    private String text(int start, int end)
+    {
+        int length = Math.min(end - start, scratch.length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the shared location for a city.
+     *
+     * @param city the city
+     * @return the location
+     */
+    private Location location(String city)
+    {
+        Location location = locations.get(city);
+        if (location == null)
+        {
+            location = new Location(city);
+            locations.put(city, location);
+        }
+        return location;
+    }
+
+    /**
+     * Parses a non-negative decimal integer.
+     *
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the value, or -1 if the text is not a number
+     */
+    private int parseInt(int start, int end)
+    {
+        if (start == end || end - start > 9)
+            return -1;
+
+        int value = 0;
+        for (int i = start; i < end; i++)
+        {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a date in M/D/YYYY form.
+     *
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the date, or null if the text is not a valid date
+     */
+    private Date parseDate(int start, int end)
+    {
+        int firstSlash = indexOf('/', start, end);
+        int secondSlash = firstSlash < 0 ? -1 : indexOf('/', firstSlash + 1, end);
+        if (secondSlash < 0)
+            return null;
+
+        int month = parseInt(start, firstSlash);
+        int day = parseInt(firstSlash + 1, secondSlash);
+        int year = parseInt(secondSlash + 1, end);
+        if (month < 0 || day < 0 || year < 0)
+            return null;
+
+        Date date = new Date(year, month, day);
+        return date.isValid() ? date : null;
+    }
+
+    /**
+     * Finds a byte in a range of the buffer.
+     *
+     * @param b     the byte to find
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the offset of the byte, or -1 if it is not found
+     */
+    private int indexOf(char b, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (buffer.get(i) == b)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Matches a token against the specialty names, ignoring case.
+     *
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the specialty, or null if no specialty matches
+     */
+    private Specialty parseSpecialty(int start, int end)
+    {
+        for (Specialty specialty : Specialty.values())
+        {
+            if (matches(specialty.name(), start, end))
+                return specialty;
+        }
+        return null;
+    }
+
+    /**
+     * Parses a comma-separated list of imaging services, ignoring case.
+     *
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return the service bitmask, or -1 if an entry is not an imaging service
+     */
+    private int parseServices(int start, int end)
+    {
+        int mask = 0;
+        while (start < end)
+        {
+            int comma = indexOf(',', start, end);
+            int entryEnd = comma < 0 ? end : comma;
+            int bit = 0;
+            for (Radiology service : Radiology.values())
+            {
+                if (matches(service.name(), start, entryEnd))
+                    bit = service.bit();
+            }
+            if (bit == 0)
+                return -1;
+
+            mask |= bit;
+            start = entryEnd + 1;
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a range of the buffer spells an upper-case name, ignoring case.
+     *
+     * @param name  the name
+     * @param start the first offset
+     * @param end   the offset just past the last byte
+     * @return true if the range matches the name, false otherwise
+     */
+    private boolean matches(String name, int start, int end)
+    {
+        if (name.length() != end - start)
+            return false;
+
+        for (int i = 0; i < name.length(); i++)
+        {
+            if (Character.toUpperCase((char) buffer.get(start + i)) != name.charAt(i))
+                return false;
+        }
+        return true;
+    }
+}
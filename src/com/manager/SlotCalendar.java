@@ -0,0 +1,216 @@
+package com.manager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-date, per-provider time slot availability index.
+ * Each (provider, date) pair holds a bitmap of booked slots, where bit i is set when
+ * the slot with index i + 1 is taken. The bitmap spans as many 64-bit words as the
+ * slot grid needs, two for a full day of 15-minute slots. Days are stored in a ring indexed by epoch day,
+ * large enough to cover today plus the six month booking window, so a slot booked on one
+ * day never blocks the same slot on another day. Check, reserve and release are O(1).
+ * The calendar is lock-free: each word is an atomic long and a reservation is a
+ * compare-and-set that sets the slot's bit only if it is still clear, so two threads
+ * reserving the same slot cannot both succeed.
+ * The roster size must be fixed with {@link #ensureCapacity(int)} before reservations begin.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class SlotCalendar
+{
+    /** Number of days held by the ring, larger than the six month booking window */
+    static final int RING_DAYS = 256;
+    /** Initial number of providers each day can hold */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Number of 64-bit words in each provider's bitmap */
+    private final int words;
+    /** The day held by each ring entry */
+    private final AtomicReferenceArray<Day> days;
+    /** Number of providers each day can hold */
+    private volatile int capacity;
+
+    /**
+     * Creates an empty calendar for the current slot grid.
+     */
+    public SlotCalendar()
+    {
+        this(SlotGrid.current().size());
+    }
+
+    /**
+     * Creates an empty calendar for the given number of slots a day.
+     *
+     * @param slotsPerDay the number of slots in a day
+     */
+    public SlotCalendar(int slotsPerDay)
+    {
+        words = Math.max(1, (slotsPerDay + 63) >>> 6);
+        days = new AtomicReferenceArray<>(RING_DAYS);
+        capacity = DEFAULT_CAPACITY;
+    }
+
+    /**
+     * Makes room for providers with ids below the given count.
+     * Must not run while other threads reserve or release slots.
+     *
+     * @param providers the number of providers
+     */
+    public synchronized void ensureCapacity(int providers)
+    {
+        if (providers <= capacity)
+            return;
+
+        int newCapacity = Math.max(providers, capacity * 2);
+        for (int i = 0; i < RING_DAYS; i++)
+        {
+            Day day = days.get(i);
+            if (day != null)
+                days.set(i, day.copy(newCapacity * words));
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Checks if a provider's slot is free on the given day.
+     *
+     * @param providerId the provider id
+     * @param epochDay   the day as days since 1/1/1970
+     * @param slot       the zero-based slot index
+     * @return true if the slot is free, false otherwise
+     */
+    public boolean isAvailable(int providerId, int epochDay, int slot)
+    {
+        Day day = days.get(Math.floorMod(epochDay, RING_DAYS));
+        if (day == null || day.epochDay != epochDay || providerId >= capacity)
+            return true;
+
+        return (day.bits.get(providerId * words + (slot >>> 6)) & (1L << slot)) == 0;
+    }
+
+    /**
+     * Atomically reserves a provider's slot on the given day.
+     *
+     * @param providerId the provider id
+     * @param epochDay   the day as days since 1/1/1970
+     * @param slot       the zero-based slot index
+     * @return true if the slot was free and is now reserved by the caller, false if it was already taken
+     * @throws IllegalArgumentException if the provider id is beyond the calendar's capacity
+     */
+    public boolean tryReserve(int providerId, int epochDay, int slot)
+    {
+        if (providerId >= capacity)
+            throw new IllegalArgumentException("Provider " + providerId + " is not in the calendar");
+
+        Day day = day(epochDay);
+        if (day == null)
+            return false;
+
+        int word = providerId * words + (slot >>> 6);
+        long bit = 1L << slot;
+        long current;
+        do
+        {
+            current = day.bits.get(word);
+            if ((current & bit) != 0)
+                return false;
+        } while (!day.bits.compareAndSet(word, current, current | bit));
+
+        return true;
+    }
+
+    /**
+     * Atomically frees a provider's slot on the given day.
+     *
+     * @param providerId the provider id
+     * @param epochDay   the day as days since 1/1/1970
+     * @param slot       the zero-based slot index
+     */
+    public void release(int providerId, int epochDay, int slot)
+    {
+        Day day = days.get(Math.floorMod(epochDay, RING_DAYS));
+        if (day == null || day.epochDay != epochDay || providerId >= capacity)
+            return;
+
+        int word = providerId * words + (slot >>> 6);
+        long bit = 1L << slot;
+        long current;
+        do
+        {
+            current = day.bits.get(word);
+            if ((current & bit) == 0)
+                return;
+        } while (!day.bits.compareAndSet(word, current, current & ~bit));
+    }
+
+    /**
+     * Frees every slot of every provider.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < RING_DAYS; i++)
+            days.set(i, null);
+    }
+
+    /**
+     * Returns the bitmaps of a day, replacing the ring entry if it holds an older day.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @return the day, or null if the ring entry already holds a later day
+     */
+    private Day day(int epochDay)
+    {
+        int ring = Math.floorMod(epochDay, RING_DAYS);
+        while (true)
+        {
+            Day day = days.get(ring);
+            if (day != null && day.epochDay == epochDay)
+                return day;
+            if (day != null && day.epochDay > epochDay)
+                return null;
+
+            Day created = new Day(epochDay, capacity * words);
+            if (days.compareAndSet(ring, day, created))
+                return created;
+        }
+    }
+
+    /**
+     * The booked slot bitmaps of one day, words of provider id p at p * words.
+     */
+    private static final class Day
+    {
+        /** The day as days since 1/1/1970 */
+        private final int epochDay;
+        /** The bitmap words */
+        private final AtomicLongArray bits;
+
+        /**
+         * Creates an empty day.
+         *
+         * @param epochDay the day as days since 1/1/1970
+         * @param length   the number of bitmap words
+         */
+        Day(int epochDay, int length)
+        {
+            this.epochDay = epochDay;
+            this.bits = new AtomicLongArray(length);
+        }
+
+        /**
+         * Copies the day into a larger array.
+         *
+         * @param length the number of bitmap words
+         * @return the copy
+         */
+        Day copy(int length)
+        {
+            Day copy = new Day(epochDay, length);
+            for (int i = 0; i < bits.length(); i++)
+                copy.bits.set(i, bits.get(i));
+            return copy;
+        }
+    }
+}
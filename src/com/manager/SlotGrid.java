@@ -0,0 +1,255 @@
+package com.manager;
+
+/**
+ * The time slots offered each day.
+ * A grid is made of one or more sessions, each running from a start time to an end time
+ * in fixed steps, written as "9:00-12:00/30" for half-hour slots from 9:00 AM to 11:30 AM.
+ * Sessions are separated by commas. The default grid is
+ * <pre>
+ * 9:00-12:00/30,14:00-17:00/30
+ * </pre>
+ * and a site can replace it by setting the {@value #PROPERTY} system property, e.g.
+ * "8:00-12:00/15,13:00-20:00/15" for 15-minute slots with evening hours. A malformed property
+ * is ignored in favor of the default grid, and the reason is kept for the application to report.
+ * A day holds at most {@value #MAX_SLOTS} slots. Slot lookups by index and by minute of the day
+ * are array reads into tables built once when the grid is created.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class SlotGrid
+{
+    /** System property holding the grid specification */
+    public static final String PROPERTY = "clinic.slotGrid";
+    /** The grid used when the property is not set */
+    public static final String DEFAULT_SPEC = "9:00-12:00/30,14:00-17:00/30";
+    /** Largest number of slots in a day, one every 15 minutes */
+    public static final int MAX_SLOTS = 96;
+    /** Minutes in a day */
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** Why the system property was ignored, or null if it was used or is not set */
+    private static String propertyError;
+    /** The grid in use, read once from the system property */
+    private static final SlotGrid CURRENT = load();
+
+    /** The specification the grid was built from */
+    private final String spec;
+    /** The time slots, by zero-based index */
+    private final Timeslot[] slots;
+    /** One-based slot index for each minute of the day, 0 where no slot starts */
+    private final byte[] indexByMinute;
+
+    /**
+     * Creates a grid from slot start times.
+     *
+     * @param spec         the specification the grid was built from
+     * @param startMinutes the minute of the day each slot starts, ascending
+     * @param count        the number of slots
+     */
+    private SlotGrid(String spec, int[] startMinutes, int count)
+    {
+        this.spec = spec;
+        slots = new Timeslot[count];
+        indexByMinute = new byte[MINUTES_PER_DAY];
+        for (int i = 0; i < count; i++)
+        {
+            slots[i] = new Timeslot(startMinutes[i] / 60, startMinutes[i] % 60, i + 1);
+            indexByMinute[startMinutes[i]] = (byte) (i + 1);
+        }
+    }
+
+    /**
+     * Returns the grid in use.
+     *
+     * @return the current grid
+     */
+    public static SlotGrid current()
+    {
+        return CURRENT;
+    }
+
+    /**
+     * Returns why the {@value #PROPERTY} system property was ignored in favor of the default grid.
+     *
+     * @return the reason, or null if the property was used or is not set
+     */
+    public static String getPropertyError()
+    {
+        return propertyError;
+    }
+
+    /**
+     * Builds the grid named by the system property, falling back to the default grid if the
+     * property is malformed. Runs during class initialization, where an exception would leave
+     * the class, and every timeslot with it, unusable.
+     *
+     * @return the grid
+     */
+    private static SlotGrid load()
+    {
+        String spec = System.getProperty(PROPERTY);
+        if (spec != null)
+        {
+            try
+            {
+                return parse(spec);
+            }
+            catch (IllegalArgumentException e)
+            {
+                propertyError = "Invalid " + PROPERTY + " \"" + spec + "\", using the default slot grid "
+                        + DEFAULT_SPEC + ": " + e.getMessage();
+            }
+        }
+        return parse(DEFAULT_SPEC);
+    }
+
+    /**
+     * Builds a grid from its specification.
+     *
+     * @param spec the comma-separated sessions, each "H:MM-H:MM/STEP"
+     * @return the grid
+     * @throws IllegalArgumentException if the specification is malformed, sessions overlap
+     *                                  or are out of order, or there are more than {@value #MAX_SLOTS} slots
+     */
+    public static SlotGrid parse(String spec)
+    {
+        int[] startMinutes = new int[MAX_SLOTS];
+        int count = 0;
+        int previousEnd = -1;
+
+        for (String session : spec.split(","))
+        {
+            int dash = session.indexOf('-');
+            int slash = session.indexOf('/');
+            if (dash < 0 || slash < dash)
+                throw new IllegalArgumentException("Invalid slot session: " + session.trim());
+
+            int start = parseTime(session.substring(0, dash));
+            int end = parseTime(session.substring(dash + 1, slash));
+            int step = parseNumber(session.substring(slash + 1));
+            if (step <= 0 || end <= start)
+                throw new IllegalArgumentException("Invalid slot session: " + session.trim());
+            if (start < previousEnd)
+                throw new IllegalArgumentException("Slot sessions overlap or are out of order: " + spec);
+
+            for (int minute = start; minute < end; minute += step)
+            {
+                if (count == MAX_SLOTS)
+                    throw new IllegalArgumentException("More than " + MAX_SLOTS + " slots a day: " + spec);
+                startMinutes[count++] = minute;
+            }
+            previousEnd = end;
+        }
+        return new SlotGrid(spec, startMinutes, count);
+    }
+
+    /**
+     * Parses a time of day in H:MM form, allowing 24:00 as the end of the day.
+     *
+     * @param text the time
+     * @return the minute of the day
+     */
+    private static int parseTime(String text)
+    {
+        String[] parts = text.trim().split(":");
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Invalid time: " + text.trim());
+
+        int hour = parseNumber(parts[0]);
+        int minute = parseNumber(parts[1]);
+        if (hour > 24 || minute > 59 || hour == 24 && minute != 0)
+            throw new IllegalArgumentException("Invalid time: " + text.trim());
+
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Parses a non-negative number.
+     *
+     * @param text the number
+     * @return the value
+     */
+    private static int parseNumber(String text)
+    {
+        try
+        {
+            int value = Integer.parseInt(text.trim());
+            if (value < 0)
+                throw new IllegalArgumentException("Invalid number: " + text.trim());
+            return value;
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Invalid number: " + text.trim());
+        }
+    }
+
+    /**
+     * Returns the number of slots in a day.
+     *
+     * @return the slot count
+     */
+    public int size()
+    {
+        return slots.length;
+    }
+
+    /**
+     * Returns the slot with the given index.
+     *
+     * @param index the one-based slot index
+     * @return the slot
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public Timeslot slot(int index)
+    {
+        if (!(index >= 1 && index <= slots.length))
+            throw new IllegalArgumentException("Invalid index specified.");
+
+        return slots[index - 1];
+    }
+
+    /**
+     * Returns the slot starting at the given time.
+     *
+     * @param hour   the hour (0-23)
+     * @param minute the minute (0-59)
+     * @return the slot
+     * @throws IllegalArgumentException if no slot starts at that time
+     */
+    public Timeslot slot(int hour, int minute)
+    {
+        int index = indexOf(hour, minute);
+        if (index == 0)
+            throw new IllegalArgumentException("Invalid time specified.");
+
+        return slots[index - 1];
+    }
+
+    /**
+     * Returns the index of the slot starting at the given time.
+     *
+     * @param hour   the hour (0-23)
+     * @param minute the minute (0-59)
+     * @return the one-based slot index, or 0 if no slot starts at that time
+     */
+    public int indexOf(int hour, int minute)
+    {
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59)
+            return 0;
+
+        return indexByMinute[hour * 60 + minute] & 0xFF;
+    }
+
+    /**
+     * Returns the specification the grid was built from.
+     *
+     * @return the specification
+     */
+    @Override
+    public String toString()
+    {
+        return spec;
+    }
+}
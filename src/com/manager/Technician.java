@@ -1,5 +1,7 @@
 package com.manager;
 
+import java.util.EnumSet;
+
 /**
  * Represents a technician object.
  * 
@@ -12,10 +14,8 @@ public class Technician extends Provider
     private int ratePerVisit;
     /** The location of the technician. */
     private Location location;
-    /** The occupied time slots of the technician. */
-    private boolean[] occupiedTimeSlots;
-    /** The services provided by the technician. */
-    private Radiology[] services;
+    /** The services provided by the technician, one bit per Radiology ordinal. */
+    private final int services;
 
     /**
      * Creates a new Technician with the given profile, location, rate per visit,
@@ -28,98 +28,72 @@ public class Technician extends Provider
      */
     public Technician(Profile profile, Location location, int ratePerVisit, Radiology[] services)
     {
-        super(profile, location);
-        this.location = location;
-        this.ratePerVisit = ratePerVisit;
-        this.services = services;
-        this.occupiedTimeSlots = new boolean[12]; // 12 time slots per day
-
-        // Initialize the occupied time slots to false
-        for (int i = 0; i < 12; i++)
-            occupiedTimeSlots[i] = false;
+        this(profile, location, ratePerVisit, Radiology.mask(services));
     }
 
     /**
-     * Maps the Timeslot to the corresponding index in the availability array.
+     * Creates a new Technician with the given profile, location, rate per visit,
+     * and service bitmask.
      * 
-     * @param timeSlot the Timeslot to map
-     * @return the index in the availability array or -1 if the time is invalid
+     * @param profile      the profile of the technician
+     * @param location     the location of the technician
+     * @param ratePerVisit the rate per visit of the technician
+     * @param services     the services provided by the technician, as built by {@link Radiology#mask}
      */
-    private int getSlotIndex(Timeslot timeSlot)
+    public Technician(Profile profile, Location location, int ratePerVisit, int services)
     {
-        int hour = timeSlot.getHour();
-        int minute = timeSlot.getMinute();
-
-        // Morning slots
-        if (hour == 9 && minute == 0) return 0;    // 9:00 AM
-        if (hour == 9 && minute == 30) return 1;   // 9:30 AM
-        if (hour == 10 && minute == 0) return 2;   // 10:00 AM
-        if (hour == 10 && minute == 30) return 3;  // 10:30 AM
-        if (hour == 11 && minute == 0) return 4;   // 11:00 AM
-        if (hour == 11 && minute == 30) return 5;  // 11:30 AM
-
-        // Afternoon slots
-        if (hour == 14 && minute == 0) return 6;   // 2:00 PM
-        if (hour == 14 && minute == 30) return 7;  // 2:30 PM
-        if (hour == 15 && minute == 0) return 8;   // 3:00 PM
-        if (hour == 15 && minute == 30) return 9;  // 3:30 PM
-        if (hour == 16 && minute == 0) return 10;  // 4:00 PM
-        if (hour == 16 && minute == 30) return 11; // 4:30 PM
-
-        return -1; // Invalid timeslot
+        super(profile, location);
+        this.location = location;
+        this.ratePerVisit = ratePerVisit;
+        this.services = services & Radiology.ALL;
     }
 
+    /**
+     * Returns the location of the technician.
+     * 
+     * @return the location
+     */
     public Location getLocation()
     {
         return location;
     }
 
     /**
-     * Returns true if time slot is available, false otherwise.
+     * Returns true if the service can be performed by the technician, false
+     * otherwise.
      * 
-     * @param timeSlot the time slot
-     * @return true if time slot is available, false otherwise
+     * @param service the service
+     * @return true if the service can be performed by the technician, false otherwise
      */
-    public boolean isAvailable(Timeslot timeSlot)
+    public boolean canPerform(Radiology service)
     {
-        int index = getSlotIndex(timeSlot);
-
-        if (index == -1)
-            return false;
-
-        return !occupiedTimeSlots[index];
+        return (services & service.bit()) != 0;
     }
 
     /**
-     * Marks the time slot as occupied.
+     * Returns the services provided by the technician as a bitmask.
      * 
-     * @param timeSlot the time slot
+     * @return the service bitmask, one bit per Radiology ordinal
      */
-    public void bookTimeSlot(Timeslot timeSlot)
+    public int getServiceMask()
     {
-        int index = getSlotIndex(timeSlot);
-
-        if (index != -1)
-            occupiedTimeSlots[index] = true;
+        return services;
     }
 
     /**
-     * Returns true if the service can be performed by the technician, false
-     * otherwise.
+     * Returns the services provided by the technician.
      * 
-     * @param service the service
-     * @return true if the service can be performed by the technician, false otherwise
+     * @return a new set of the services
      */
-    public boolean canPerform(Radiology service)
+    public EnumSet<Radiology> getServices()
     {
-        for (Radiology s : services)
+        EnumSet<Radiology> set = EnumSet.noneOf(Radiology.class);
+        for (Radiology service : Radiology.values())
         {
-            if (s == service)
-            {
-                return true;
-            }
+            if (canPerform(service))
+                set.add(service);
         }
-        return false;
+        return set;
     }
 
     /**
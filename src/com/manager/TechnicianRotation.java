@@ -0,0 +1,355 @@
+package com.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Round-robin rotation of technicians for imaging appointments.
+ * Technicians are numbered by their position in the rotation. For each imaging service
+ * the rotation keeps a bitmap of the technicians who can perform it, and for each
+ * (date, time slot) a bitmap of the technicians already booked. The next free technician
+ * who can perform a service is the first set bit of (capable AND NOT booked) at or after the
+ * rotation cursor, found a 64-technician word at a time with no per-technician probing.
+ * The cursor is an atomic integer, so desks booking at the same time share one rotation
+ * without a lock.
+ * Technician slots are reserved in the SlotCalendar, which stays the authority on who is
+ * booked; the rotation's bitmaps mirror it so that booked technicians are skipped in bulk.
+ * A technician is only available if their location also has a free room for the service,
+ * so a location whose rooms are taken passes the turn to the next technician elsewhere.
+ *
+ * @author Harsh Singh
+ * @author Surya Bhardwaj
+ */
+public class TechnicianRotation
+{
+    /** The technicians in rotation order */
+    private final List<Technician> technicians;
+    /** Rotation position of each technician, indexed by provider id, -1 for other providers */
+    private final int[] positions;
+    /** Technicians able to perform each service, indexed by Radiology ordinal */
+    private final long[][] capable;
+    /** Number of technicians able to perform each service, indexed by Radiology ordinal */
+    private final int[] capableCount;
+    /** Number of 64-bit words in a bitmap over the technicians */
+    private final int words;
+    /** Number of time slots in a day */
+    private final int slotsPerDay;
+    /** The provider slot calendar */
+    private final SlotCalendar calendar;
+    /** The imaging rooms of the technicians' locations */
+    private final RoomInventory rooms;
+    /** Booked technicians of each ring day, words of slot s at s * words */
+    private final AtomicReferenceArray<Day> days;
+    /** Rotation position of the next technician to hand out */
+    private final AtomicInteger cursor;
+
+    /**
+     * Creates a rotation over the given technicians.
+     *
+     * @param technicians the technicians in rotation order
+     * @param calendar    the provider slot calendar
+     * @param rooms       the imaging rooms of the technicians' locations
+     * @param slotsPerDay the number of time slots in a day
+     */
+    public TechnicianRotation(List<Technician> technicians, SlotCalendar calendar, RoomInventory rooms,
+                              int slotsPerDay)
+    {
+        this.technicians = technicians;
+        this.calendar = calendar;
+        this.rooms = rooms;
+        this.slotsPerDay = slotsPerDay;
+        words = (technicians.size() + 63) >>> 6;
+        days = new AtomicReferenceArray<>(SlotCalendar.RING_DAYS);
+        cursor = new AtomicInteger();
+
+        int maxId = -1;
+        for (Technician technician : technicians)
+            maxId = Math.max(maxId, technician.getId());
+        positions = new int[maxId + 1];
+        Arrays.fill(positions, -1);
+
+        Radiology[] services = Radiology.values();
+        capable = new long[services.length][words];
+        capableCount = new int[services.length];
+        for (int p = 0; p < technicians.size(); p++)
+        {
+            Technician technician = technicians.get(p);
+            positions[technician.getId()] = p;
+            int mask = technician.getServiceMask();
+            for (Radiology service : services)
+            {
+                if ((mask & service.bit()) != 0)
+                {
+                    capable[service.ordinal()][p >>> 6] |= 1L << p;
+                    capableCount[service.ordinal()]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the technicians in rotation order.
+     *
+     * @return the rotation list
+     */
+    public List<Technician> getTechnicians()
+    {
+        return technicians;
+    }
+
+    /**
+     * Finds the next technician in the rotation who is free, can perform the service and has
+     * a free room for it at their location, and advances the rotation past them. Nothing is reserved.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @param service  the imaging service
+     * @return the technician, or null if no one is available
+     */
+    public Technician next(int epochDay, int slot, Radiology service)
+    {
+        return claim(epochDay, slot, service, null);
+    }
+
+    /**
+     * Reserves the slot of the next technician in the rotation who is free and can perform
+     * the service, together with a room for it at their location, and advances the rotation past them.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @param service  the imaging service
+     * @param room     receives the number of the reserved room in element 0
+     * @return the technician whose slot is now reserved, or null if no one is available
+     */
+    public Technician reserveNext(int epochDay, int slot, Radiology service, int[] room)
+    {
+        return claim(epochDay, slot, service, room);
+    }
+
+    /**
+     * Reserves a given technician's slot.
+     *
+     * @param technician the technician
+     * @param epochDay   the day as days since 1/1/1970
+     * @param slot       the zero-based slot index
+     * @return true if the slot was free and is now reserved, false if it was already taken
+     */
+    public boolean reserve(Technician technician, int epochDay, int slot)
+    {
+        if (!calendar.tryReserve(technician.getId(), epochDay, slot))
+            return false;
+
+        int position = position(technician);
+        Day day = day(epochDay);
+        if (position >= 0 && day != null)
+            setBit(day.booked, slot * words + (position >>> 6), 1L << position);
+        return true;
+    }
+
+    /**
+     * Frees a given technician's slot.
+     *
+     * @param technician the technician
+     * @param epochDay   the day as days since 1/1/1970
+     * @param slot       the zero-based slot index
+     */
+    public void release(Technician technician, int epochDay, int slot)
+    {
+        calendar.release(technician.getId(), epochDay, slot);
+
+        int position = position(technician);
+        Day day = days.get(Math.floorMod(epochDay, SlotCalendar.RING_DAYS));
+        if (position >= 0 && day != null && day.epochDay == epochDay)
+            clearBit(day.booked, slot * words + (position >>> 6), 1L << position);
+    }
+
+    /**
+     * Forgets every booking.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < SlotCalendar.RING_DAYS; i++)
+            days.set(i, null);
+    }
+
+    /**
+     * Walks the rotation from the cursor over technicians who are capable and not booked,
+     * returning the first one the calendar confirms as free whose location has a free room.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @param slot     the zero-based slot index
+     * @param service  the imaging service
+     * @param room     receives the number of the reserved room in element 0, or null to reserve nothing
+     * @return the technician, or null if no one is available
+     */
+    private Technician claim(int epochDay, int slot, Radiology service, int[] room)
+    {
+        int count = technicians.size();
+        if (capableCount[service.ordinal()] == 0 || slot < 0 || slot >= slotsPerDay)
+            return null;
+
+        Day day = day(epochDay);
+        long[] able = capable[service.ordinal()];
+        int start = Math.floorMod(cursor.get(), count);
+
+        for (int scanned = 0; scanned < count; )
+        {
+            int from = (start + scanned) % count;
+            int position = nextFree(day, able, slot, from, count);
+            if (position < 0)
+            {
+                // nothing free from here to the end of the rotation, wrap to the front
+                scanned += count - from;
+                continue;
+            }
+            scanned += position - from + 1;
+
+            Technician technician = technicians.get(position);
+            Location location = technician.getLocation();
+            if (room == null)
+            {
+                if (!calendar.isAvailable(technician.getId(), epochDay, slot)
+                        || !rooms.isAvailable(location, service, epochDay, slot))
+                    continue;
+            }
+            else
+            {
+                if (!reserve(technician, epochDay, slot))
+                    continue;
+                room[0] = rooms.reserve(location, service, epochDay, slot);
+                if (room[0] == 0)
+                {
+                    // every room at this location is taken, try the next technician
+                    release(technician, epochDay, slot);
+                    continue;
+                }
+            }
+
+            int current = cursor.get();
+            cursor.compareAndSet(current, (position + 1) % count);
+            return technician;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the first capable technician not marked as booked, from a position to the end of the rotation.
+     *
+     * @param day   the booked bitmaps of the day, or null if nothing is booked that day
+     * @param able  the capable technicians
+     * @param slot  the zero-based slot index
+     * @param from  the first rotation position to consider
+     * @param count the number of technicians
+     * @return the rotation position, or -1 if there is none
+     */
+    private int nextFree(Day day, long[] able, int slot, int from, int count)
+    {
+        int base = slot * words;
+        for (int w = from >>> 6; w < words; w++)
+        {
+            long free = able[w];
+            if (day != null)
+                free &= ~day.booked.get(base + w);
+            if (w == from >>> 6)
+                free &= -1L << from;
+            if (free != 0)
+            {
+                int position = (w << 6) + Long.numberOfTrailingZeros(free);
+                return position < count ? position : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the rotation position of a technician.
+     *
+     * @param technician the technician
+     * @return the position, or -1 if the technician is not in the rotation
+     */
+    private int position(Technician technician)
+    {
+        int id = technician.getId();
+        return id >= 0 && id < positions.length ? positions[id] : -1;
+    }
+
+    /**
+     * Returns the booked bitmaps of a day, replacing the ring entry if it holds an older day.
+     *
+     * @param epochDay the day as days since 1/1/1970
+     * @return the day, or null if the ring entry already holds a later day
+     */
+    private Day day(int epochDay)
+    {
+        int ring = Math.floorMod(epochDay, SlotCalendar.RING_DAYS);
+        while (true)
+        {
+            Day day = days.get(ring);
+            if (day != null && day.epochDay == epochDay)
+                return day;
+            if (day != null && day.epochDay > epochDay)
+                return null;
+
+            Day created = new Day(epochDay, slotsPerDay * words);
+            if (days.compareAndSet(ring, day, created))
+                return created;
+        }
+    }
+
+    /**
+     * Atomically sets bits of a word.
+     *
+     * @param bits the bitmap
+     * @param word the word index
+     * @param mask the bits to set
+     */
+    private static void setBit(AtomicLongArray bits, int word, long mask)
+    {
+        long current;
+        do
+        {
+            current = bits.get(word);
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Atomically clears bits of a word.
+     *
+     * @param bits the bitmap
+     * @param word the word index
+     * @param mask the bits to clear
+     */
+    private static void clearBit(AtomicLongArray bits, int word, long mask)
+    {
+        long current;
+        do
+        {
+            current = bits.get(word);
+        } while (!bits.compareAndSet(word, current, current & ~mask));
+    }
+
+    /**
+     * The booked technician bitmaps of one day.
+     */
+    private static final class Day
+    {
+        /** The day as days since 1/1/1970 */
+        private final int epochDay;
+        /** Booked technicians, words of slot s at s * words */
+        private final AtomicLongArray booked;
+
+        /**
+         * Creates an empty day.
+         *
+         * @param epochDay the day as days since 1/1/1970
+         * @param length   the number of bitmap words
+         */
+        Day(int epochDay, int length)
+        {
+            this.epochDay = epochDay;
+            this.booked = new AtomicLongArray(length);
+        }
+    }
+}
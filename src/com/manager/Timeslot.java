@@ -3,6 +3,8 @@ package com.manager;
 /**
  * Represents a timeslot with an hour and minute.
  * This class implements Comparable to allow comparison based on time.
+ * Timeslots are flyweights: there is one shared instance per slot of the {@link SlotGrid},
+ * obtained through {@link #of(int)} or {@link #of(int, int)}.
  * 
  * @author Surya Bhardwaj
  * @author Harsh Singh
@@ -10,108 +12,52 @@ package com.manager;
 public class Timeslot implements Comparable<Timeslot>
 {
     /**Holds the hour of the timeslot */
-    private int hour;
+    private final int hour;
     /**Holds the minute of the timeslot */
-    private int minute;
+    private final int minute;
+    /**Holds the one-based index of the timeslot */
+    private final int index;
+    /**Holds the display form of the timeslot */
+    private final String label;
 
     /**
-     * Constructs a Timeslot with the given hour and minute.
+     * Constructs a canonical timeslot. Only the slot grid creates timeslots.
      * 
      * @param hour   the hour of the timeslot (0-23)
      * @param minute the minute of the timeslot (0-59)
+     * @param index  the one-based index of the timeslot in its grid
      */
-    public Timeslot(int hour, int minute)
+    Timeslot(int hour, int minute, int index)
     {
-        if (!isValidTime(hour, minute))
-            throw new IllegalArgumentException("Invalid time specified.");
-
         this.hour = hour;
         this.minute = minute;
+        this.index = index;
+        this.label = format(hour, minute);
     }
 
     /**
-     * Creates a timeslot based on the index.
+     * Returns the timeslot starting at the given hour and minute.
      * 
-     * @param index the index of the timeslot
+     * @param hour   the hour of the timeslot (0-23)
+     * @param minute the minute of the timeslot (0-59)
+     * @return the canonical timeslot
+     * @throws IllegalArgumentException if no timeslot starts at that time
      */
-    public Timeslot(int index)
+    public static Timeslot of(int hour, int minute)
     {
-        if (!(index >= 1 && index <= 12))
-            throw new IllegalArgumentException("Invalid index specified.");
-
-        if (index == 1)
-        {
-            hour = 9;
-            minute = 0;   // 9:00 AM
-        }
-        else if (index == 2)
-        {
-            hour = 9;
-            minute = 30;  // 9:30 AM
-        }
-        else if (index == 3)
-        {
-            hour = 10;
-            minute = 0;   // 10:00 AM
-        }
-        else if (index == 4)
-        {
-            hour = 10;
-            minute = 30;  // 10:30 AM
-        }
-        else if (index == 5)
-        {
-            hour = 11;
-            minute = 0;   // 11:00 AM
-        }
-        else if (index == 6)
-        {
-            hour = 11;
-            minute = 30;  // 11:30 AM
-        }
-        else if (index == 7)
-        {
-            hour = 14;
-            minute = 0;   // 2:00 PM
-        }
-        else if (index == 8)
-        {
-            hour = 14;
-            minute = 30;  // 2:30 PM
-        }
-        else if (index == 9)
-        {
-            hour = 15;
-            minute = 0;   // 3:00 PM
-        }
-        else if (index == 10)
-        {
-            hour = 15;
-            minute = 30;  // 3:30 PM
-        }
-        else if (index == 11)
-        {
-            hour = 16;
-            minute = 0;   // 4:00 PM
-        }
-        else if (index == 12)
-        {
-            hour = 16;
-            minute = 30;  // 4:30 PM
-        }
+        return SlotGrid.current().slot(hour, minute);
     }
 
     /**
-     * Returns whether the given hour and minute constitute a valid time slot.
+     * Returns the timeslot with the given index.
      * 
-     * @param hour   the hour of the timeslot (0-23)
-     * @param minute the minute of the timeslot (0-59)
-     * @return true if the time is valid, false otherwise
+     * @param index the one-based index of the timeslot
+     * @return the canonical timeslot
+     * @throws IllegalArgumentException if the index is out of range
      */
-    private boolean isValidTime(int hour, int minute)
+    public static Timeslot of(int index)
     {
-        return (hour == 9 || hour == 10 || hour == 11 || hour == 14 || hour == 15 || hour == 16) &&
-               (minute == 0 || minute == 30);
+        return SlotGrid.current().slot(index);
     }
 
     /**
@@ -134,39 +80,14 @@ public class Timeslot implements Comparable<Timeslot>
         return minute;
     }
 
-    /**
-     * Checks whether the timeslot is valid or not.
-     * 
-     * @return true if the timeslot is valid, false otherwise
-     */
-    public boolean isValid()
-    {
-        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59;
-    }
-
     /**
      * Returns the index of the timeslot.
      * 
-     * @return the index
+     * @return the one-based index in the slot grid
      */
     public int getSlotIndex()
     {
-        int index = -1;
-
-        if (hour == 9 && minute == 0) index = 0;    // 9:00 AM
-        else if (hour == 9 && minute == 30) index = 1;   // 9:30 AM
-        else if (hour == 10 && minute == 0) index = 2;  // 10:00 AM
-        else if (hour == 10 && minute == 30) index = 3;  // 10:30 AM
-        else if (hour == 11 && minute == 0) index = 4;  // 11:00 AM
-        else if (hour == 11 && minute == 30) index = 5;  // 11:30 AM
-        else if (hour == 14 && minute == 0) index = 6;  // 2:00 PM
-        else if (hour == 14 && minute == 30) index = 7;  // 2:30 PM
-        else if (hour == 15 && minute == 0) index = 8;  // 3:00 PM
-        else if (hour == 15 && minute == 30) index = 9;  // 3:30 PM
-        else if (hour == 16 && minute == 0) index = 10; // 4:00 PM
-        else if (hour == 16 && minute == 30) index = 11; // 4:30 PM
-
-        return index + 1;
+        return index;
     }
 
     /**
@@ -222,19 +143,31 @@ public class Timeslot implements Comparable<Timeslot>
      */
     @Override
     public String toString()
+    {
+        return label;
+    }
+
+    /**
+     * Formats a time in 12-hour form, e.g. "9:30 AM".
+     * 
+     * @param hour   the hour (0-23)
+     * @param minute the minute (0-59)
+     * @return the formatted time
+     */
+    private static String format(int hour, int minute)
     {
         String time;
         String amOrPm;
 
-        // Convert hour to 12-hour format
-        if (hour > 12)
+        // Convert hour to 12-hour format, noon is 12 PM and midnight is 12 AM
+        if (hour >= 12)
         {
-            time = Integer.toString(hour - 12);
+            time = Integer.toString(hour == 12 ? 12 : hour - 12);
             amOrPm = "PM";
         }
         else
         {
-            time = Integer.toString(hour);
+            time = Integer.toString(hour == 0 ? 12 : hour);
             amOrPm = "AM";
         }
 